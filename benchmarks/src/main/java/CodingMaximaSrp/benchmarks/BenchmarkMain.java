@@ -0,0 +1,42 @@
+package CodingMaximaSrp.benchmarks;
+
+   import org.openjdk.jmh.results.format.ResultFormatType;
+   import org.openjdk.jmh.runner.Runner;
+   import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+   import org.openjdk.jmh.runner.options.CommandLineOptions;
+   import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+   // Same command line as the stock JMH launcher, except results default to JSON in jmh-result.json.
+   // Running with -Dbenchmarks.profile=large measures 10M rows per roster file instead of the default
+   // sizes, with the forked JVMs given a 32 GB heap; an explicit -p rows still wins.
+   public class BenchmarkMain {
+       static final String LARGE_PROFILE = "large";
+       private static final String LARGE_ROWS = "10000000";
+       private static final String LARGE_HEAP = "-Xmx32g";
+
+       public static void main(String[] args) throws Exception {
+           CommandLineOptions commandLine = new CommandLineOptions(args);
+           if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                   || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+               org.openjdk.jmh.Main.main(args);
+               return;
+           }
+           ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+           if (!commandLine.getResultFormat().hasValue()) {
+               options.resultFormat(ResultFormatType.JSON);
+           }
+           if (!commandLine.getResult().hasValue()) {
+               options.result("jmh-result.json");
+           }
+           if (LARGE_PROFILE.equals(System.getProperty("benchmarks.profile"))) {
+               if (!commandLine.getParameter("rows").hasValue()) {
+                   options.param("rows", LARGE_ROWS);
+               }
+               // Appended after each benchmark's own -Xmx, so this one takes effect
+               if (!commandLine.getJvmArgsAppend().hasValue()) {
+                   options.jvmArgsAppend(LARGE_HEAP);
+               }
+           }
+           new Runner(options.build()).run();
+       }
+   }
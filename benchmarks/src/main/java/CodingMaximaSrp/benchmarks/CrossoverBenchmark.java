@@ -0,0 +1,74 @@
+package CodingMaximaSrp.benchmarks;
+
+   import java.util.List;
+   import java.util.Map;
+   import java.util.concurrent.ForkJoinPool;
+   import java.util.concurrent.TimeUnit;
+
+   import org.openjdk.jmh.annotations.Benchmark;
+   import org.openjdk.jmh.annotations.BenchmarkMode;
+   import org.openjdk.jmh.annotations.Fork;
+   import org.openjdk.jmh.annotations.Level;
+   import org.openjdk.jmh.annotations.Measurement;
+   import org.openjdk.jmh.annotations.Mode;
+   import org.openjdk.jmh.annotations.OutputTimeUnit;
+   import org.openjdk.jmh.annotations.Param;
+   import org.openjdk.jmh.annotations.Scope;
+   import org.openjdk.jmh.annotations.Setup;
+   import org.openjdk.jmh.annotations.State;
+   import org.openjdk.jmh.annotations.Warmup;
+
+   import CodingMaximaSrp.Employee;
+   import CodingMaximaSrp.FullTimeEmployee;
+   import CodingMaximaSrp.PayrollSummary;
+   import CodingMaximaSrp.SalarySystem;
+
+   // Forces every roster-wide scan to run in parallel or on the calling thread, at growing roster
+   // sizes. The size where the parallel score overtakes the sequential one is the crossover that
+   // SalarySystem.DEFAULT_PARALLEL_THRESHOLD should sit near on the target hardware. rows is per
+   // roster file, so the system holds three times as many employees.
+   @State(Scope.Benchmark)
+   @BenchmarkMode(Mode.AverageTime)
+   @OutputTimeUnit(TimeUnit.MICROSECONDS)
+   @Warmup(iterations = 5, time = 2)
+   @Measurement(iterations = 5, time = 2)
+   @Fork(value = 1, jvmArgs = "-Xmx8g")
+   public class CrossoverBenchmark {
+       @Param({"1000", "5000", "20000", "100000", "1000000"})
+       public int rows;
+
+       @Param({"false", "true"})
+       public boolean parallel;
+
+       private SalarySystem system;
+       private boolean raise;
+
+       @Setup(Level.Trial)
+       public void load() throws Exception {
+           system = new SalarySystem(ForkJoinPool.commonPool(), parallel ? 0 : Integer.MAX_VALUE);
+           RosterState.loadInto(system, RosterGenerator.cached(rows));
+       }
+
+       @Benchmark
+       public Map<String, Object> generatePayrollReport() {
+           return system.generatePayrollReport();
+       }
+
+       @Benchmark
+       public PayrollSummary payrollSummary() {
+           return system.streamPayroll((empId, name, type, salaryCents, hireDate) -> {
+           });
+       }
+
+       @Benchmark
+       public SalarySystem bulkSalaryAdjustment() {
+           raise = !raise;
+           system.bulkSalaryAdjustment(FullTimeEmployee.class, raise ? 100 : -100, 0, 0);
+           return system;
+       }
+
+       @Benchmark
+       public List<Employee> filterEmployees() {
+           return system.filterEmployees(emp -> emp.getName().startsWith("A") && emp.calculateSalaryCents() > 5_000_000);
+       }
+   }
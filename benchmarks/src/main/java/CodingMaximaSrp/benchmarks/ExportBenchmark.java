@@ -0,0 +1,58 @@
+package CodingMaximaSrp.benchmarks;
+
+   import java.io.IOException;
+   import java.nio.file.Files;
+   import java.nio.file.Path;
+   import java.util.concurrent.TimeUnit;
+
+   import org.openjdk.jmh.annotations.Benchmark;
+   import org.openjdk.jmh.annotations.BenchmarkMode;
+   import org.openjdk.jmh.annotations.Fork;
+   import org.openjdk.jmh.annotations.Level;
+   import org.openjdk.jmh.annotations.Measurement;
+   import org.openjdk.jmh.annotations.Mode;
+   import org.openjdk.jmh.annotations.OutputTimeUnit;
+   import org.openjdk.jmh.annotations.Scope;
+   import org.openjdk.jmh.annotations.Setup;
+   import org.openjdk.jmh.annotations.State;
+   import org.openjdk.jmh.annotations.TearDown;
+   import org.openjdk.jmh.annotations.Warmup;
+
+   import CodingMaximaSrp.PayrollSummary;
+
+   // Full payroll export to a file, plain and gzipped. Each invocation replaces the previous file.
+   @State(Scope.Thread)
+   @BenchmarkMode(Mode.AverageTime)
+   @OutputTimeUnit(TimeUnit.MILLISECONDS)
+   @Warmup(iterations = 3, time = 2)
+   @Measurement(iterations = 5, time = 2)
+   @Fork(value = 1, jvmArgs = "-Xmx8g")
+   public class ExportBenchmark {
+       private Path directory;
+       private Path csvFile;
+       private Path gzipFile;
+
+       @Setup(Level.Trial)
+       public void createDirectory() throws IOException {
+           directory = Files.createTempDirectory("payroll-export");
+           csvFile = directory.resolve("payroll.csv");
+           gzipFile = directory.resolve("payroll.csv.gz");
+       }
+
+       @TearDown(Level.Trial)
+       public void deleteDirectory() throws IOException {
+           Files.deleteIfExists(csvFile);
+           Files.deleteIfExists(gzipFile);
+           Files.deleteIfExists(directory);
+       }
+
+       @Benchmark
+       public void exportPayrollToCsvFile(RosterState state) throws IOException {
+           state.system.exportPayrollToCsv(csvFile.toString());
+       }
+
+       @Benchmark
+       public PayrollSummary exportPayrollToGzip(RosterState state) throws IOException {
+           return state.system.exportPayrollToCsv(gzipFile, true);
+       }
+   }
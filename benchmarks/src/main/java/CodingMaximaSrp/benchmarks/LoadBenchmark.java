@@ -0,0 +1,55 @@
+package CodingMaximaSrp.benchmarks;
+
+   import java.nio.file.Path;
+   import java.util.List;
+   import java.util.concurrent.TimeUnit;
+
+   import org.openjdk.jmh.annotations.Benchmark;
+   import org.openjdk.jmh.annotations.BenchmarkMode;
+   import org.openjdk.jmh.annotations.Fork;
+   import org.openjdk.jmh.annotations.Level;
+   import org.openjdk.jmh.annotations.Measurement;
+   import org.openjdk.jmh.annotations.Mode;
+   import org.openjdk.jmh.annotations.OutputTimeUnit;
+   import org.openjdk.jmh.annotations.Param;
+   import org.openjdk.jmh.annotations.Scope;
+   import org.openjdk.jmh.annotations.Setup;
+   import org.openjdk.jmh.annotations.State;
+   import org.openjdk.jmh.annotations.Warmup;
+
+   import CodingMaximaSrp.Employee;
+   import CodingMaximaSrp.EmployeeCsvLoader;
+
+   // Parsing one roster file into employees, for each of the three CSV schemas
+   @State(Scope.Benchmark)
+   @BenchmarkMode(Mode.SingleShotTime)
+   @OutputTimeUnit(TimeUnit.MILLISECONDS)
+   @Warmup(iterations = 3)
+   @Measurement(iterations = 5)
+   @Fork(value = 1, jvmArgs = "-Xmx8g")
+   public class LoadBenchmark {
+       @Param({"10000", "1000000"})
+       public int rows;
+
+       private Path rosterDirectory;
+
+       @Setup(Level.Trial)
+       public void generate() throws Exception {
+           rosterDirectory = RosterGenerator.cached(rows);
+       }
+
+       @Benchmark
+       public List<Employee> loadFullTimeEmployees() throws Exception {
+           return EmployeeCsvLoader.loadFullTimeEmployees(rosterDirectory.resolve(RosterGenerator.FULL_TIME_FILE));
+       }
+
+       @Benchmark
+       public List<Employee> loadContractEmployees() throws Exception {
+           return EmployeeCsvLoader.loadContractEmployees(rosterDirectory.resolve(RosterGenerator.CONTRACT_FILE));
+       }
+
+       @Benchmark
+       public List<Employee> loadDailyWageEmployees() throws Exception {
+           return EmployeeCsvLoader.loadDailyWageEmployees(rosterDirectory.resolve(RosterGenerator.DAILY_WAGE_FILE));
+       }
+   }
@@ -0,0 +1,36 @@
+package CodingMaximaSrp.benchmarks;
+
+   import java.util.concurrent.TimeUnit;
+
+   import org.openjdk.jmh.annotations.Benchmark;
+   import org.openjdk.jmh.annotations.BenchmarkMode;
+   import org.openjdk.jmh.annotations.Fork;
+   import org.openjdk.jmh.annotations.Measurement;
+   import org.openjdk.jmh.annotations.Mode;
+   import org.openjdk.jmh.annotations.OutputTimeUnit;
+   import org.openjdk.jmh.annotations.Scope;
+   import org.openjdk.jmh.annotations.State;
+   import org.openjdk.jmh.annotations.Warmup;
+
+   import CodingMaximaSrp.FullTimeEmployee;
+   import CodingMaximaSrp.SalarySystem;
+
+   // Bulk adjustments alternate between raising and lowering pay, so salaries stay put however
+   // many invocations a run makes and every invocation does the same work
+   @State(Scope.Thread)
+   @BenchmarkMode(Mode.AverageTime)
+   @OutputTimeUnit(TimeUnit.MILLISECONDS)
+   @Warmup(iterations = 5, time = 2)
+   @Measurement(iterations = 5, time = 2)
+   @Fork(value = 1, jvmArgs = "-Xmx8g")
+   public class MutationBenchmark {
+       private boolean raise;
+
+       @Benchmark
+       public SalarySystem bulkSalaryAdjustment(RosterState state) {
+           raise = !raise;
+           double change = raise ? 100 : -100;
+           state.system.bulkSalaryAdjustment(FullTimeEmployee.class, change, change / 10, 0);
+           return state.system;
+       }
+   }
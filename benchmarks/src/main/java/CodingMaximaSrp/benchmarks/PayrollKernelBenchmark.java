@@ -0,0 +1,69 @@
+package CodingMaximaSrp.benchmarks;
+
+   import java.util.List;
+   import java.util.concurrent.TimeUnit;
+
+   import org.openjdk.jmh.annotations.Benchmark;
+   import org.openjdk.jmh.annotations.BenchmarkMode;
+   import org.openjdk.jmh.annotations.Fork;
+   import org.openjdk.jmh.annotations.Level;
+   import org.openjdk.jmh.annotations.Measurement;
+   import org.openjdk.jmh.annotations.Mode;
+   import org.openjdk.jmh.annotations.OutputTimeUnit;
+   import org.openjdk.jmh.annotations.Param;
+   import org.openjdk.jmh.annotations.Scope;
+   import org.openjdk.jmh.annotations.Setup;
+   import org.openjdk.jmh.annotations.State;
+   import org.openjdk.jmh.annotations.Warmup;
+
+   import CodingMaximaSrp.ColumnarEmployeeStore;
+   import CodingMaximaSrp.Employee;
+   import CodingMaximaSrp.EmployeeCsvLoader;
+   import CodingMaximaSrp.PayrollSummary;
+
+   // Full-roster payroll over the columnar store, rows clustered by type. This class forks without
+   // the incubator module and so measures the scalar kernel; Vectorized adds the module and measures
+   // the vector kernel on the same data. At 1M rows per file the summary reads about 120 MB of columns,
+   // so comparing its time to the machine's memory bandwidth shows how close the kernel gets.
+   @State(Scope.Benchmark)
+   @BenchmarkMode(Mode.AverageTime)
+   @OutputTimeUnit(TimeUnit.MICROSECONDS)
+   @Warmup(iterations = 5, time = 2)
+   @Measurement(iterations = 5, time = 2)
+   @Fork(value = 1, jvmArgs = "-Xmx8g")
+   public class PayrollKernelBenchmark {
+       @Param({"10000", "1000000"})
+       public int rows;
+
+       private ColumnarEmployeeStore store;
+
+       @Setup(Level.Trial)
+       public void load() throws Exception {
+           store = new ColumnarEmployeeStore(rows * 3);
+           EmployeeCsvLoader.loadFullTimeEmployees(RosterGenerator.cached(rows).resolve(RosterGenerator.FULL_TIME_FILE),
+               EmployeeCsvLoader.DEFAULT_BATCH_SIZE, store::addEmployees);
+           EmployeeCsvLoader.loadContractEmployees(RosterGenerator.cached(rows).resolve(RosterGenerator.CONTRACT_FILE),
+               EmployeeCsvLoader.DEFAULT_BATCH_SIZE, store::addEmployees);
+           EmployeeCsvLoader.loadDailyWageEmployees(RosterGenerator.cached(rows).resolve(RosterGenerator.DAILY_WAGE_FILE),
+               EmployeeCsvLoader.DEFAULT_BATCH_SIZE, store::addEmployees);
+           store.clusterByType();
+           String mismatch = store.findPayrollMismatch();
+           if (mismatch != null) {
+               throw new IllegalStateException("Payroll kernel disagrees with calculateSalary for " + mismatch);
+           }
+       }
+
+       @Benchmark
+       public PayrollSummary summarizePayroll() {
+           return store.summarizePayroll();
+       }
+
+       @Benchmark
+       public List<Employee> filterEmployeesBySalary() {
+           return store.filterEmployeesBySalary(50_000, 60_000);
+       }
+
+       @Fork(value = 1, jvmArgs = {"-Xmx8g", "--add-modules", "jdk.incubator.vector"})
+       public static class Vectorized extends PayrollKernelBenchmark {
+       }
+   }
@@ -0,0 +1,59 @@
+package CodingMaximaSrp.benchmarks;
+
+   import java.time.LocalDate;
+   import java.util.List;
+   import java.util.Map;
+   import java.util.concurrent.TimeUnit;
+
+   import org.openjdk.jmh.annotations.Benchmark;
+   import org.openjdk.jmh.annotations.BenchmarkMode;
+   import org.openjdk.jmh.annotations.Fork;
+   import org.openjdk.jmh.annotations.Measurement;
+   import org.openjdk.jmh.annotations.Mode;
+   import org.openjdk.jmh.annotations.OutputTimeUnit;
+   import org.openjdk.jmh.annotations.Warmup;
+
+   import CodingMaximaSrp.ContractEmployee;
+   import CodingMaximaSrp.Employee;
+
+   // Read paths over a loaded system. The ranges are picked to hit a fixed share of the roster
+   // at every size, so results scale with the result size rather than the selectivity.
+   @BenchmarkMode(Mode.AverageTime)
+   @OutputTimeUnit(TimeUnit.MICROSECONDS)
+   @Warmup(iterations = 5, time = 2)
+   @Measurement(iterations = 5, time = 2)
+   @Fork(value = 1, jvmArgs = "-Xmx8g")
+   public class QueryBenchmark {
+       private static final LocalDate HIRED_FROM = LocalDate.of(2018, 1, 1);
+       private static final LocalDate HIRED_TO = LocalDate.of(2018, 12, 31);
+
+       @Benchmark
+       public List<Employee> filterEmployeesBySalary(RosterState state) {
+           return state.system.filterEmployeesBySalary(50_000, 60_000);
+       }
+
+       @Benchmark
+       public List<Employee> filterEmployeesByType(RosterState state) {
+           return state.system.filterEmployeesByType(ContractEmployee.class);
+       }
+
+       @Benchmark
+       public List<Employee> filterEmployeesByHireDate(RosterState state) {
+           return state.system.filterEmployeesByHireDate(HIRED_FROM, HIRED_TO);
+       }
+
+       @Benchmark
+       public List<Employee> sortEmployeesBySalary(RosterState state) {
+           return state.system.sortEmployeesBySalary(false);
+       }
+
+       @Benchmark
+       public List<Employee> sortEmployeesByName(RosterState state) {
+           return state.system.sortEmployeesByName();
+       }
+
+       @Benchmark
+       public Map<String, Object> generatePayrollReport(RosterState state) {
+           return state.system.generatePayrollReport();
+       }
+   }
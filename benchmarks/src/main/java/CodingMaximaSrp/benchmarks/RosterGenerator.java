@@ -0,0 +1,117 @@
+package CodingMaximaSrp.benchmarks;
+
+   import java.io.BufferedWriter;
+   import java.io.IOException;
+   import java.io.Writer;
+   import java.nio.charset.StandardCharsets;
+   import java.nio.file.Files;
+   import java.nio.file.Path;
+   import java.nio.file.Paths;
+   import java.nio.file.StandardCopyOption;
+   import java.time.LocalDate;
+   import java.util.Locale;
+   import java.util.Random;
+   import java.util.UUID;
+
+   // Writes synthetic rosters in the same three CSV schemas as the bundled files, at any size.
+   // Output is deterministic for a given row count, so runs on different machines load the same data.
+   public class RosterGenerator {
+       public static final String FULL_TIME_FILE = "full_time_employees.csv";
+       public static final String CONTRACT_FILE = "contract_employees.csv";
+       public static final String DAILY_WAGE_FILE = "daily_wage_employees.csv";
+
+       private static final String[] FIRST_NAMES = {"Aarav", "Priya", "Rohan", "Ananya", "Vikram", "Sneha", "Arjun",
+           "Kavya", "Rahul", "Meera", "Karan", "Divya", "Aditya", "Neha", "Siddharth", "Pooja", "Nikhil", "Isha"};
+       private static final String[] LAST_NAMES = {"Sharma", "Patel", "Reddy", "Iyer", "Singh", "Gupta", "Nair",
+           "Kumar", "Mehta", "Joshi", "Rao", "Verma", "Kapoor", "Das", "Bose", "Menon", "Pillai", "Chopra"};
+       private static final LocalDate FIRST_HIRE_DATE = LocalDate.of(2010, 1, 1);
+       private static final int HIRE_DATE_SPAN_DAYS = 15 * 365;
+
+       // Generates rowsPerFile rows into each of the three files under directory, unless a
+       // previous run already left them there; returns the directory
+       public static Path generate(Path directory, int rowsPerFile) throws IOException {
+           Files.createDirectories(directory);
+           writeIfMissing(directory.resolve(FULL_TIME_FILE), rowsPerFile, 1, RosterGenerator::writeFullTime);
+           writeIfMissing(directory.resolve(CONTRACT_FILE), rowsPerFile, 2, RosterGenerator::writeContract);
+           writeIfMissing(directory.resolve(DAILY_WAGE_FILE), rowsPerFile, 3, RosterGenerator::writeDailyWage);
+           return directory;
+       }
+
+       // Shared cache under java.io.tmpdir, one directory per size
+       public static Path cached(int rowsPerFile) throws IOException {
+           return generate(Paths.get(System.getProperty("java.io.tmpdir"), "employee-rosters", Integer.toString(rowsPerFile)), rowsPerFile);
+       }
+
+       public static void main(String[] args) throws IOException {
+           if (args.length != 2) {
+               System.err.println("Usage: RosterGenerator <output directory> <rows per file>");
+               System.exit(2);
+           }
+           Path directory = generate(Paths.get(args[0]), Integer.parseInt(args[1]));
+           System.out.println("Rosters written to " + directory.toAbsolutePath());
+       }
+
+       @FunctionalInterface
+       private interface RowWriter {
+           void write(Writer out, Random random, int rows) throws IOException;
+       }
+
+       // Writes to a temp file first so an interrupted run never leaves a short roster behind
+       private static void writeIfMissing(Path file, int rows, long seed, RowWriter rowWriter) throws IOException {
+           if (Files.exists(file)) {
+               return;
+           }
+           Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+           try {
+               try (Writer out = new BufferedWriter(Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8), 1 << 16)) {
+                   rowWriter.write(out, new Random(seed * 1_000_003L + rows), rows);
+               }
+               Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+           } finally {
+               Files.deleteIfExists(tempFile);
+           }
+       }
+
+       private static void writeFullTime(Writer out, Random random, int rows) throws IOException {
+           out.write("emp_id,name,hire_date,basic_pay,hra,bonus,pf_deduction");
+           for (int i = 0; i < rows; i++) {
+               int basic = 30_000 + random.nextInt(90) * 1_000;
+               writeCommon(out, random);
+               out.write(',' + money(basic) + ',' + money(basic * 0.3) + ',' + money(basic * 0.1) + ',' + money(basic * 0.12));
+           }
+       }
+
+       private static void writeContract(Writer out, Random random, int rows) throws IOException {
+           out.write("emp_id,name,hire_date,basic_pay,hra,contract_duration_months");
+           for (int i = 0; i < rows; i++) {
+               int rate = 20_000 + random.nextInt(60) * 500;
+               writeCommon(out, random);
+               out.write(',' + money(rate) + ',' + money(rate * 0.2) + ',' + (3 + random.nextInt(22)));
+           }
+       }
+
+       private static void writeDailyWage(Writer out, Random random, int rows) throws IOException {
+           out.write("emp_id,name,hire_date,daily_rate,working_days,basic_pay,bonus");
+           for (int i = 0; i < rows; i++) {
+               int rate = 500 + random.nextInt(30) * 50;
+               int days = 15 + random.nextInt(12);
+               writeCommon(out, random);
+               out.write(',' + money(rate) + ',' + days + ',' + money(rate * days) + ',' + money(rate * days * 0.05));
+           }
+       }
+
+       private static void writeCommon(Writer out, Random random) throws IOException {
+           out.write('\n');
+           out.write(new UUID(random.nextLong(), random.nextLong()).toString());
+           out.write(',');
+           out.write(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+           out.write(' ');
+           out.write(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+           out.write(',');
+           out.write(FIRST_HIRE_DATE.plusDays(random.nextInt(HIRE_DATE_SPAN_DAYS)).toString());
+       }
+
+       private static String money(double amount) {
+           return String.format(Locale.ROOT, "%.2f", amount);
+       }
+   }
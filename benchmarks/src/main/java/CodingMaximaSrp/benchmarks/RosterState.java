@@ -0,0 +1,40 @@
+package CodingMaximaSrp.benchmarks;
+
+   import java.nio.file.Path;
+
+   import org.openjdk.jmh.annotations.Level;
+   import org.openjdk.jmh.annotations.Param;
+   import org.openjdk.jmh.annotations.Scope;
+   import org.openjdk.jmh.annotations.Setup;
+   import org.openjdk.jmh.annotations.State;
+
+   import CodingMaximaSrp.EmployeeCsvLoader;
+   import CodingMaximaSrp.SalarySystem;
+
+   // A SalarySystem loaded from the generated rosters, shared by the query, mutation and export
+   // benchmarks. rows is per roster file, so the system holds three times as many employees.
+   // 10M rows per file is opt-in, as it needs a 32 GB heap: see BenchmarkMain.LARGE_PROFILE
+   @State(Scope.Benchmark)
+   public class RosterState {
+       @Param({"10000", "1000000"})
+       public int rows;
+
+       public Path rosterDirectory;
+       public SalarySystem system;
+
+       @Setup(Level.Trial)
+       public void load() throws Exception {
+           rosterDirectory = RosterGenerator.cached(rows);
+           system = new SalarySystem();
+           loadInto(system, rosterDirectory);
+       }
+
+       static void loadInto(SalarySystem system, Path rosterDirectory) throws Exception {
+           EmployeeCsvLoader.loadFullTimeEmployees(rosterDirectory.resolve(RosterGenerator.FULL_TIME_FILE),
+               EmployeeCsvLoader.DEFAULT_BATCH_SIZE, system::addEmployees);
+           EmployeeCsvLoader.loadContractEmployees(rosterDirectory.resolve(RosterGenerator.CONTRACT_FILE),
+               EmployeeCsvLoader.DEFAULT_BATCH_SIZE, system::addEmployees);
+           EmployeeCsvLoader.loadDailyWageEmployees(rosterDirectory.resolve(RosterGenerator.DAILY_WAGE_FILE),
+               EmployeeCsvLoader.DEFAULT_BATCH_SIZE, system::addEmployees);
+       }
+   }
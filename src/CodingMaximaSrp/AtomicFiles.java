@@ -0,0 +1,27 @@
+package CodingMaximaSrp;
+
+   import java.io.IOException;
+   import java.nio.file.AtomicMoveNotSupportedException;
+   import java.nio.file.Files;
+   import java.nio.file.Path;
+   import java.nio.file.StandardCopyOption;
+
+   // Output files are written to a temp file beside the target and renamed over it when complete,
+   // so a crash or failed write never leaves a partial file in place
+   final class AtomicFiles {
+       private AtomicFiles() {
+       }
+
+       static Path createTempSibling(Path target) throws IOException {
+           Path absolute = target.toAbsolutePath();
+           return Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+       }
+
+       static void moveIntoPlace(Path tempFile, Path target) throws IOException {
+           try {
+               Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+           } catch (AtomicMoveNotSupportedException e) {
+               Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+           }
+       }
+   }
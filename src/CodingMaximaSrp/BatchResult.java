@@ -0,0 +1,60 @@
+package CodingMaximaSrp;
+
+   // Outcome of a batch call, one entry per requested emp_id in request order: a status code and,
+   // for calls that produce one, the salary in cents. Replaces a message string per employee.
+   public class BatchResult {
+       public static final byte OK = 0;
+       public static final byte NOT_FOUND = 1;
+       public static final byte NOT_APPLICABLE = 2; // Wrong employee type for the operation
+       public static final byte INVALID = 3; // Rejected by validation, e.g. pay would go negative
+
+       private final byte[] statuses;
+       private final long[] salaryCents;
+
+       BatchResult(int size, boolean withSalaries) {
+           this.statuses = new byte[size];
+           this.salaryCents = withSalaries ? new long[size] : null;
+       }
+
+       public int size() {
+           return statuses.length;
+       }
+
+       public byte getStatus(int index) {
+           return statuses[index];
+       }
+
+       public boolean isOk(int index) {
+           return statuses[index] == OK;
+       }
+
+       public int count(byte status) {
+           int count = 0;
+           for (byte s : statuses) {
+               if (s == status) {
+                   count++;
+               }
+           }
+           return count;
+       }
+
+       // The salary after the call; only defined where the status is OK
+       public long getSalaryCents(int index) {
+           if (salaryCents == null) {
+               throw new IllegalStateException("This batch call does not report salaries");
+           }
+           return salaryCents[index];
+       }
+
+       public byte[] getStatuses() {
+           return statuses.clone();
+       }
+
+       void setStatus(int index, byte status) {
+           statuses[index] = status;
+       }
+
+       void setSalaryCents(int index, long cents) {
+           salaryCents[index] = cents;
+       }
+   }
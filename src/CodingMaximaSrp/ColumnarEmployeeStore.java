@@ -0,0 +1,502 @@
+package CodingMaximaSrp;
+
+   import java.time.LocalDate;
+   import java.util.*;
+   import java.util.function.IntBinaryOperator;
+
+   // Column-oriented alternative to SalarySystem's object map: one long[] of cents per pay field, an
+   // epoch-day hire date, a byte type tag (the RosterType ordinal) and dictionary-encoded names.
+   // Salary scans hand each run of same-type rows to a PayrollKernel, vectorised where the JVM allows;
+   // clusterByType makes those runs as long as possible. Queries return detached Employee copies
+   // built only for the matching rows. It stands beside SalarySystem with the same query methods
+   // rather than behind it: SalarySystem keeps its object map. Not thread-safe.
+   public class ColumnarEmployeeStore {
+       private static final int INITIAL_CAPACITY = 1024;
+       private static final RosterType[] TYPES = RosterType.values();
+       private static final byte FULL_TIME = (byte) RosterType.FULL_TIME.ordinal();
+       private static final byte CONTRACT = (byte) RosterType.CONTRACT.ordinal();
+       private static final byte DAILY_WAGE = (byte) RosterType.DAILY_WAGE.ordinal();
+
+       private int size;
+       private String[] empIds;
+       private int[] nameCodes;
+       private int[] hireDays;
+       private byte[] typeTags;
+       private long[] basicPay;
+       private long[] hra;
+       private long[] bonus;
+       private long[] rate; // PF deduction for full-time, daily rate for daily wage
+       private int[] units; // Contract months for contract, working days for daily wage
+       private final RowIdIndex rowsById;
+       private final List<String> names = new ArrayList<>();
+       private final Map<String, Integer> codesByName = new HashMap<>();
+       private int[] nameRanks; // Alphabetical rank per name code, rebuilt when the dictionary grows
+       private final PayrollKernel kernel;
+
+       // Picked on first use, since checking the vector kernel builds a small store of its own
+       private static class DefaultKernel {
+           static final PayrollKernel INSTANCE = PayrollKernel.select();
+       }
+
+       public ColumnarEmployeeStore() {
+           this(INITIAL_CAPACITY);
+       }
+
+       public ColumnarEmployeeStore(int initialCapacity) {
+           this(initialCapacity, DefaultKernel.INSTANCE);
+       }
+
+       ColumnarEmployeeStore(int initialCapacity, PayrollKernel kernel) {
+           this.kernel = kernel;
+           int capacity = Math.max(initialCapacity, 16);
+           rowsById = new RowIdIndex(capacity);
+           empIds = new String[capacity];
+           nameCodes = new int[capacity];
+           hireDays = new int[capacity];
+           typeTags = new byte[capacity];
+           basicPay = new long[capacity];
+           hra = new long[capacity];
+           bonus = new long[capacity];
+           rate = new long[capacity];
+           units = new int[capacity];
+       }
+
+       public int size() {
+           return size;
+       }
+
+       public void addEmployees(List<Employee> employeeList) {
+           for (Employee emp : employeeList) {
+               addEmployee(emp);
+           }
+       }
+
+       public void addEmployee(Employee emp) {
+           RosterType type = RosterType.forEmployee(emp);
+           if (type == null) {
+               throw new IllegalArgumentException("Unsupported employee type " + emp.getClass().getSimpleName());
+           }
+           int row = rowsById.get(emp.getEmpId());
+           if (row == RowIdIndex.NO_ROW) {
+               ensureCapacity(size + 1);
+               row = size++;
+               rowsById.put(emp.getEmpId(), row);
+           }
+           empIds[row] = emp.getEmpId();
+           nameCodes[row] = encodeName(emp.getName());
+           hireDays[row] = (int) emp.getHireDate().toEpochDay();
+           typeTags[row] = (byte) type.ordinal();
+           basicPay[row] = emp.getBasicPayCents();
+           hra[row] = emp.getHraCents();
+           bonus[row] = emp.getBonusCents();
+           rate[row] = 0;
+           units[row] = 0;
+           if (emp instanceof FullTimeEmployee) {
+               rate[row] = ((FullTimeEmployee) emp).getPfDeductionCents();
+           } else if (emp instanceof ContractEmployee) {
+               units[row] = ((ContractEmployee) emp).getContractDurationMonths();
+           } else if (emp instanceof DailyWageEmployee) {
+               rate[row] = ((DailyWageEmployee) emp).getDailyRateCents();
+               units[row] = ((DailyWageEmployee) emp).getWorkingDays();
+           }
+       }
+
+       public String removeEmployee(String empId) {
+           int row = rowsById.remove(empId);
+           if (row == RowIdIndex.NO_ROW) {
+               return "Employee " + empId + " not found";
+           }
+           String name = names.get(nameCodes[row]);
+           int last = --size;
+           if (row != last) {
+               moveRow(last, row);
+               rowsById.put(empIds[row], row);
+           }
+           empIds[last] = null;
+           return "Employee " + name + " removed";
+       }
+
+       public Double getEmployeeSalary(String empId) {
+           int row = rowsById.get(empId);
+           return row != RowIdIndex.NO_ROW ? Money.toDouble(salaryAt(row)) : null;
+       }
+
+       public String applyIncrement(String empId, double incrementPercentage) {
+           int row = rowsById.get(empId);
+           if (row != RowIdIndex.NO_ROW && typeTags[row] == FULL_TIME) {
+               long increment = FullTimeEmployee.incrementCents(basicPay[row], incrementPercentage);
+               adjustRow(row, increment, FullTimeEmployee.incrementHraCents(increment), 0);
+               return "Increment applied to " + names.get(nameCodes[row]);
+           }
+           return "Increment only applicable to full-time employees";
+       }
+
+       public void bulkSalaryAdjustment(Class<? extends Employee> employeeType, double basicChange, double hraChange, double bonusChange) {
+           boolean[] matches = matchingTags(employeeType);
+           long basicCents = Money.ofDouble(basicChange);
+           long hraCents = Money.ofDouble(hraChange);
+           long bonusCents = Money.ofDouble(bonusChange);
+           for (int row = 0; row < size; row++) {
+               if (matches[typeTags[row]]) {
+                   adjustRow(row, basicCents, hraCents, bonusCents);
+               }
+           }
+       }
+
+       public List<Employee> filterEmployeesBySalary(double minSalary, double maxSalary) {
+           if (Double.isNaN(minSalary) || Double.isNaN(maxSalary)) {
+               return new ArrayList<>(); // As SalarySystem does; both bounds would otherwise round to 0
+           }
+           long[] inRange = new long[(size + 63) >>> 6];
+           runPayroll(new PayrollKernel.Output(null, inRange,
+               SalarySystem.lowestCentsAtLeast(minSalary), SalarySystem.highestCentsAtMost(maxSalary)), null);
+           List<Employee> filtered = new ArrayList<>();
+           for (int word = 0; word < inRange.length; word++) {
+               for (long bits = inRange[word]; bits != 0; bits &= bits - 1) {
+                   filtered.add(materialize((word << 6) + Long.numberOfTrailingZeros(bits)));
+               }
+           }
+           return filtered;
+       }
+
+       public List<Employee> filterEmployeesByType(Class<? extends Employee> employeeType) {
+           boolean[] matches = matchingTags(employeeType);
+           List<Employee> filtered = new ArrayList<>();
+           for (int row = 0; row < size; row++) {
+               if (matches[typeTags[row]]) {
+                   filtered.add(materialize(row));
+               }
+           }
+           return filtered;
+       }
+
+       public List<Employee> filterEmployeesByHireDate(LocalDate startDate, LocalDate endDate) {
+           long startDay = startDate.toEpochDay();
+           long endDay = endDate.toEpochDay();
+           List<Employee> filtered = new ArrayList<>();
+           for (int row = 0; row < size; row++) {
+               int hireDay = hireDays[row];
+               if (hireDay >= startDay && hireDay <= endDay) {
+                   filtered.add(materialize(row));
+               }
+           }
+           return filtered;
+       }
+
+       public List<Employee> sortEmployeesBySalary(boolean ascending) {
+           long[] salaries = salaries();
+           int[] rows = identityRows();
+           sortRows(rows, ascending
+               ? (a, b) -> Long.compare(salaries[a], salaries[b])
+               : (a, b) -> Long.compare(salaries[b], salaries[a]));
+           return materialize(rows);
+       }
+
+       public List<Employee> sortEmployeesByName() {
+           int[] ranks = nameRanks();
+           int[] rows = identityRows();
+           sortRows(rows, (a, b) -> Integer.compare(ranks[nameCodes[a]], ranks[nameCodes[b]]));
+           return materialize(rows);
+       }
+
+       public Map<String, Object> generatePayrollReport() {
+           Map<String, Object> report = new HashMap<>();
+           List<Map<String, Object>> payroll = new ArrayList<>(size);
+           long[] salaries = salaries();
+           long totalSalary = 0;
+           int[] typeCounts = new int[TYPES.length];
+
+           for (int row = 0; row < size; row++) {
+               long salary = salaries[row];
+               Map<String, Object> entry = new HashMap<>();
+               entry.put("id", empIds[row]);
+               entry.put("name", names.get(nameCodes[row]));
+               entry.put("salary", Money.toDouble(salary));
+               entry.put("type", TYPES[typeTags[row]].getEmployeeType().getSimpleName());
+               entry.put("hireDate", LocalDate.ofEpochDay(hireDays[row]).toString());
+               payroll.add(entry);
+               totalSalary = Money.add(totalSalary, salary);
+               typeCounts[typeTags[row]]++;
+           }
+
+           report.put("payroll", payroll);
+           report.put("totalSalary", Money.toDouble(totalSalary));
+           report.put("employeeCount", size);
+           report.put("fullTimeCount", typeCounts[FULL_TIME]);
+           report.put("contractCount", typeCounts[CONTRACT]);
+           report.put("dailyWageCount", typeCounts[DAILY_WAGE]);
+           report.put("averageSalary", size == 0 ? 0.0 : Money.toDouble(Money.divide(totalSalary, size)));
+
+           return report;
+       }
+
+       // Headcount and salary totals per type, from the payroll kernel without per-row output
+       public PayrollSummary summarizePayroll() {
+           long[] totals = new long[TYPES.length];
+           runPayroll(new PayrollKernel.Output(null, null, 0, 0), totals);
+           int[] counts = new int[TYPES.length];
+           for (int row = 0; row < size; row++) {
+               counts[typeTags[row]]++;
+           }
+           PayrollSummary summary = new PayrollSummary();
+           for (RosterType type : TYPES) {
+               summary.addTotals(type.getEmployeeType(), counts[type.ordinal()], totals[type.ordinal()]);
+           }
+           return summary;
+       }
+
+       // Reorders rows so each type forms one contiguous block, keeping insertion order within a type.
+       // Payroll scans then run over three long blocks, but report, tie and filter order follow the
+       // new row order; adding or removing rows afterwards may break the blocks up again.
+       public void clusterByType() {
+           int[] blockStart = new int[TYPES.length + 1];
+           for (int row = 0; row < size; row++) {
+               blockStart[typeTags[row] + 1]++;
+           }
+           for (int tag = 0; tag < TYPES.length; tag++) {
+               blockStart[tag + 1] += blockStart[tag];
+           }
+           int[] order = new int[size];
+           for (int row = 0; row < size; row++) {
+               order[blockStart[typeTags[row]]++] = row;
+           }
+           empIds = permute(empIds, order);
+           nameCodes = permute(nameCodes, order);
+           hireDays = permute(hireDays, order);
+           typeTags = permute(typeTags, order);
+           basicPay = permute(basicPay, order);
+           hra = permute(hra, order);
+           bonus = permute(bonus, order);
+           rate = permute(rate, order);
+           units = permute(units, order);
+           for (int row = 0; row < size; row++) {
+               rowsById.put(empIds[row], row);
+           }
+       }
+
+       // Recomputes every salary through the payroll kernel and through a materialised employee's
+       // calculateSalaryCents; returns the emp_id of the first row where they differ, or null
+       public String findPayrollMismatch() {
+           long[] salaries = salaries();
+           for (int row = 0; row < size; row++) {
+               if (salaries[row] != materialize(row).calculateSalaryCents()) {
+                   return empIds[row];
+               }
+           }
+           return null;
+       }
+
+       private long[] salaries() {
+           long[] salaries = new long[size];
+           runPayroll(new PayrollKernel.Output(salaries, null, 0, 0), null);
+           return salaries;
+       }
+
+       // Hands each maximal run of one type tag to the kernel; adds each run's total to totalsByTag if given
+       private void runPayroll(PayrollKernel.Output out, long[] totalsByTag) {
+           PayrollKernel.Columns columns = new PayrollKernel.Columns(basicPay, hra, bonus, rate, units);
+           int from = 0;
+           while (from < size) {
+               byte tag = typeTags[from];
+               int to = from + 1;
+               while (to < size && typeTags[to] == tag) {
+                   to++;
+               }
+               long total;
+               if (tag == FULL_TIME) {
+                   total = kernel.fullTime(columns, from, to, out);
+               } else if (tag == CONTRACT) {
+                   total = kernel.contract(columns, from, to, out);
+               } else {
+                   total = kernel.dailyWage(columns, from, to, out);
+               }
+               if (totalsByTag != null) {
+                   totalsByTag[tag] = Money.add(totalsByTag[tag], total);
+               }
+               from = to;
+           }
+       }
+
+       // Same formulas as each subclass's calculateSalaryCents, without the virtual call
+       private long salaryAt(int row) {
+           byte tag = typeTags[row];
+           if (tag == FULL_TIME) {
+               return FullTimeEmployee.salaryCents(basicPay[row], hra[row], bonus[row], rate[row]);
+           } else if (tag == CONTRACT) {
+               return ContractEmployee.salaryCents(basicPay[row], hra[row]);
+           }
+           return DailyWageEmployee.salaryCents(rate[row], units[row], bonus[row]);
+       }
+
+       // Mirrors Employee.adjustSalary, including its validation order; a daily-wage row's basic pay
+       // stays the rate times the days worked, as DailyWageEmployee keeps it
+       private void adjustRow(int row, long basicChange, long hraChange, long bonusChange) {
+           long newBasicPay = Money.add(basicPay[row], basicChange);
+           if (typeTags[row] == DAILY_WAGE) {
+               newBasicPay = basicPay[row];
+           }
+           if (newBasicPay < 0) {
+               throw new IllegalArgumentException("Basic pay cannot be negative");
+           }
+           basicPay[row] = newBasicPay;
+           long newHra = Money.add(hra[row], hraChange);
+           if (newHra < 0) {
+               throw new IllegalArgumentException("HRA cannot be negative");
+           }
+           hra[row] = newHra;
+           long newBonus = Money.add(bonus[row], bonusChange);
+           if (newBonus < 0) {
+               throw new IllegalArgumentException("Bonus cannot be negative");
+           }
+           bonus[row] = newBonus;
+       }
+
+       private Employee materialize(int row) {
+           String empId = empIds[row];
+           String name = names.get(nameCodes[row]);
+           LocalDate hireDate = LocalDate.ofEpochDay(hireDays[row]);
+           byte tag = typeTags[row];
+           if (tag == FULL_TIME) {
+               return new FullTimeEmployee(empId, name, hireDate, basicPay[row], hra[row], bonus[row], rate[row]);
+           } else if (tag == CONTRACT) {
+               return new ContractEmployee(empId, name, hireDate, basicPay[row], hra[row], bonus[row], units[row]);
+           }
+           return new DailyWageEmployee(empId, name, hireDate, rate[row], units[row], basicPay[row], hra[row], bonus[row]);
+       }
+
+       private List<Employee> materialize(int[] rows) {
+           List<Employee> employees = new ArrayList<>(rows.length);
+           for (int row : rows) {
+               employees.add(materialize(row));
+           }
+           return employees;
+       }
+
+       private boolean[] matchingTags(Class<? extends Employee> employeeType) {
+           boolean[] matches = new boolean[TYPES.length];
+           for (RosterType type : TYPES) {
+               matches[type.ordinal()] = employeeType.isAssignableFrom(type.getEmployeeType());
+           }
+           return matches;
+       }
+
+       private int encodeName(String name) {
+           Integer code = codesByName.get(name);
+           if (code == null) {
+               code = names.size();
+               names.add(name);
+               codesByName.put(name, code);
+               nameRanks = null;
+           }
+           return code;
+       }
+
+       private int[] nameRanks() {
+           if (nameRanks == null) {
+               int[] codes = new int[names.size()];
+               for (int i = 0; i < codes.length; i++) {
+                   codes[i] = i;
+               }
+               sortRows(codes, (a, b) -> names.get(a).compareTo(names.get(b)));
+               int[] ranks = new int[codes.length];
+               for (int rank = 0; rank < codes.length; rank++) {
+                   ranks[codes[rank]] = rank;
+               }
+               nameRanks = ranks;
+           }
+           return nameRanks;
+       }
+
+       private int[] identityRows() {
+           int[] rows = new int[size];
+           for (int row = 0; row < size; row++) {
+               rows[row] = row;
+           }
+           return rows;
+       }
+
+       // Stable bottom-up merge sort of row numbers, avoiding boxed Integer comparators
+       private static void sortRows(int[] rows, IntBinaryOperator comparator) {
+           int n = rows.length;
+           int[] src = rows;
+           int[] dst = new int[n];
+           for (int width = 1; width < n; width *= 2) {
+               for (int lo = 0; lo < n; lo += 2 * width) {
+                   int mid = Math.min(lo + width, n);
+                   int hi = Math.min(lo + 2 * width, n);
+                   int i = lo, j = mid, k = lo;
+                   while (i < mid && j < hi) {
+                       dst[k++] = comparator.applyAsInt(src[i], src[j]) <= 0 ? src[i++] : src[j++];
+                   }
+                   while (i < mid) dst[k++] = src[i++];
+                   while (j < hi) dst[k++] = src[j++];
+               }
+               int[] swap = src;
+               src = dst;
+               dst = swap;
+           }
+           if (src != rows) {
+               System.arraycopy(src, 0, rows, 0, n);
+           }
+       }
+
+       private <T> T[] permute(T[] column, int[] order) {
+           T[] permuted = Arrays.copyOf(column, column.length);
+           for (int row = 0; row < size; row++) {
+               permuted[row] = column[order[row]];
+           }
+           return permuted;
+       }
+
+       private int[] permute(int[] column, int[] order) {
+           int[] permuted = new int[column.length];
+           for (int row = 0; row < size; row++) {
+               permuted[row] = column[order[row]];
+           }
+           return permuted;
+       }
+
+       private long[] permute(long[] column, int[] order) {
+           long[] permuted = new long[column.length];
+           for (int row = 0; row < size; row++) {
+               permuted[row] = column[order[row]];
+           }
+           return permuted;
+       }
+
+       private byte[] permute(byte[] column, int[] order) {
+           byte[] permuted = new byte[column.length];
+           for (int row = 0; row < size; row++) {
+               permuted[row] = column[order[row]];
+           }
+           return permuted;
+       }
+
+       private void moveRow(int from, int to) {
+           empIds[to] = empIds[from];
+           nameCodes[to] = nameCodes[from];
+           hireDays[to] = hireDays[from];
+           typeTags[to] = typeTags[from];
+           basicPay[to] = basicPay[from];
+           hra[to] = hra[from];
+           bonus[to] = bonus[from];
+           rate[to] = rate[from];
+           units[to] = units[from];
+       }
+
+       private void ensureCapacity(int required) {
+           if (required <= empIds.length) {
+               return;
+           }
+           int capacity = Math.max(required, empIds.length * 2);
+           empIds = Arrays.copyOf(empIds, capacity);
+           nameCodes = Arrays.copyOf(nameCodes, capacity);
+           hireDays = Arrays.copyOf(hireDays, capacity);
+           typeTags = Arrays.copyOf(typeTags, capacity);
+           basicPay = Arrays.copyOf(basicPay, capacity);
+           hra = Arrays.copyOf(hra, capacity);
+           bonus = Arrays.copyOf(bonus, capacity);
+           rate = Arrays.copyOf(rate, capacity);
+           units = Arrays.copyOf(units, capacity);
+       }
+   }
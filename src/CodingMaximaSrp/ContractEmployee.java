@@ -3,24 +3,44 @@ package CodingMaximaSrp;
    import java.time.LocalDate;
 
    public class ContractEmployee extends Employee {
-       private int contractDurationMonths;
+       private static final long HRA_BASIS_POINTS = 2000; // 20% HRA for contractors
+
+       private volatile int contractDurationMonths;
 
        public ContractEmployee(String empId, String name, LocalDate hireDate, double contractRate, int contractDurationMonths) {
+           this(empId, name, hireDate, Money.ofDouble(contractRate), hraCents(Money.ofDouble(contractRate)), 0, contractDurationMonths); // No bonus for contract employees
+       }
+
+       // Restores an employee with exact pay components, e.g. from a columnar store
+       ContractEmployee(String empId, String name, LocalDate hireDate, long basicPayCents, long hraCents, long bonusCents, int contractDurationMonths) {
            super(empId, name, hireDate);
-           setBasicPay(contractRate);
-           setHra(contractRate * 0.2); // 20% HRA for contractors
-           setBonus(0); // No bonus for contract employees
+           setPayCents(basicPayCents, hraCents, bonusCents);
            this.contractDurationMonths = contractDurationMonths;
        }
 
+       static ContractEmployee ofCents(String empId, String name, LocalDate hireDate, long contractRateCents, int contractDurationMonths) {
+           return new ContractEmployee(empId, name, hireDate, contractRateCents, hraCents(contractRateCents), 0, contractDurationMonths);
+       }
+
+       static long hraCents(long contractRateCents) {
+           return Money.percent(contractRateCents, HRA_BASIS_POINTS);
+       }
+
+       public int getContractDurationMonths() {
+           return contractDurationMonths;
+       }
+
        @Override
-       public double calculateSalary() {
-           double monthlySalary = getBasicPay() + getHra();
-           return Math.round(monthlySalary * 100.0) / 100.0;
+       protected long computeSalaryCents(long basicPayCents, long hraCents, long bonusCents) {
+           return salaryCents(basicPayCents, hraCents);
+       }
+
+       static long salaryCents(long basicPayCents, long hraCents) {
+           return Money.add(basicPayCents, hraCents);
        }
 
-       public String extendContract(int additionalMonths) {
+       public synchronized String extendContract(int additionalMonths) {
            this.contractDurationMonths += additionalMonths;
            return "Contract extended by " + additionalMonths + " months";
        }
-   }
\ No newline at end of file
+   }
@@ -3,30 +3,66 @@ package CodingMaximaSrp;
    import java.time.LocalDate;
 
    public class DailyWageEmployee extends Employee {
-       private double dailyRate;
-       private int workingDays;
+       private static final long BONUS_BASIS_POINTS = 500; // 5% bonus
+
+       private final long dailyRateCents;
+       private volatile int workingDays;
 
        public DailyWageEmployee(String empId, String name, LocalDate hireDate, double dailyRate, int workingDays) {
+           this(empId, name, hireDate, Money.ofDouble(dailyRate), workingDays, Money.times(Money.ofDouble(dailyRate), workingDays),
+               0, bonusCents(Money.ofDouble(dailyRate), workingDays)); // No HRA for daily wage employees
+       }
+
+       // Restores an employee with exact pay components, e.g. from a columnar store
+       DailyWageEmployee(String empId, String name, LocalDate hireDate, long dailyRateCents, int workingDays, long basicPayCents, long hraCents, long bonusCents) {
            super(empId, name, hireDate);
-           this.dailyRate = dailyRate;
+           this.dailyRateCents = dailyRateCents;
            this.workingDays = workingDays;
-           setBasicPay(dailyRate * workingDays);
-           setHra(0); // No HRA for daily wage employees
-           setBonus(dailyRate * workingDays * 0.05); // 5% bonus
+           setPayCents(basicPayCents, hraCents, bonusCents);
+       }
+
+       static DailyWageEmployee ofCents(String empId, String name, LocalDate hireDate, long dailyRateCents, int workingDays) {
+           return new DailyWageEmployee(empId, name, hireDate, dailyRateCents, workingDays, Money.times(dailyRateCents, workingDays),
+               0, bonusCents(dailyRateCents, workingDays));
+       }
+
+       public double getDailyRate() {
+           return Money.toDouble(dailyRateCents);
+       }
+
+       long getDailyRateCents() {
+           return dailyRateCents;
+       }
+
+       public int getWorkingDays() {
+           return workingDays;
+       }
+
+       // Basic pay is always the daily rate times the days worked, as the original calculateSalary
+       // recomputed it on every read, so a basic-pay change through a setter or adjustment is ignored
+       @Override
+       protected long effectiveBasicPayCents(long basicPayCents) {
+           return Money.times(dailyRateCents, workingDays);
        }
 
        @Override
-       public double calculateSalary() {
-           setBasicPay(dailyRate * workingDays);
-           double monthlySalary = getBasicPay() + getBonus();
-           return Math.round(monthlySalary * 100.0) / 100.0;
+       protected long computeSalaryCents(long basicPayCents, long hraCents, long bonusCents) {
+           return salaryCents(dailyRateCents, workingDays, bonusCents);
+       }
+
+       static long salaryCents(long dailyRateCents, int workingDays, long bonusCents) {
+           return Money.add(Money.times(dailyRateCents, workingDays), bonusCents);
+       }
+
+       static long bonusCents(long dailyRateCents, int workingDays) {
+           return Money.percent(Money.times(dailyRateCents, workingDays), BONUS_BASIS_POINTS);
        }
 
-       public void updateWorkingDays(int days) {
+       public synchronized void updateWorkingDays(int days) {
            if (days < 0) {
                throw new IllegalArgumentException("Working days cannot be negative");
            }
            this.workingDays = days;
-           setBonus(dailyRate * days * 0.05);
+           setPayCents(Money.times(dailyRateCents, days), getHraCents(), bonusCents(dailyRateCents, days));
        }
-   }
\ No newline at end of file
+   }
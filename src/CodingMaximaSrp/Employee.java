@@ -3,23 +3,58 @@ package CodingMaximaSrp;
 import java.time.LocalDate;
 
 public abstract class Employee {
+    private static final long SALARY_NOT_COMPUTED = Long.MIN_VALUE;
+
     private final String empId;
     private final String name;
     private final LocalDate hireDate;
-    private double basicPay;
-    private double hra;
-    private double bonus;
+
+    // Pay components together with the net salary derived from them. A new snapshot replaces the old
+    // one on every change, so readers on any thread see a consistent set without locking.
+    record PaySnapshot(long basicPayCents, long hraCents, long bonusCents, long salaryCents) {
+        boolean hasSalary() {
+            return salaryCents != SALARY_NOT_COMPUTED;
+        }
+    }
+
+    // Writes are serialised on the employee's own monitor; reads only load this field
+    private volatile PaySnapshot pay = new PaySnapshot(0, 0, 0, SALARY_NOT_COMPUTED);
+    private SalaryListener salaryListener; // Guarded by this
 
     public Employee(String empId, String name, LocalDate hireDate) {
         this.empId = empId;
         this.name = name;
         this.hireDate = hireDate;
-        this.basicPay = 0.0;
-        this.hra = 0.0;
-        this.bonus = 0.0;
     }
 
-    public abstract double calculateSalary();
+    // Derives net monthly pay from the given pay components; only called when they change
+    protected abstract long computeSalaryCents(long basicPayCents, long hraCents, long bonusCents);
+
+    // The basic pay actually stored when basicPayCents is requested, for types that derive it
+    protected long effectiveBasicPayCents(long basicPayCents) {
+        return basicPayCents;
+    }
+
+    public long calculateSalaryCents() {
+        PaySnapshot current = pay;
+        boolean cached = current.hasSalary();
+        Metrics.recordSalaryCalculation(cached);
+        return cached ? current.salaryCents() : refreshSalary();
+    }
+
+    public double calculateSalary() {
+        return Money.toDouble(calculateSalaryCents());
+    }
+
+    // One consistent view of the pay components and salary, e.g. for report rows
+    PaySnapshot paySnapshot() {
+        PaySnapshot current = pay;
+        if (!current.hasSalary()) {
+            refreshSalary();
+            current = pay;
+        }
+        return current;
+    }
 
     public String getEmpId() {
         return empId;
@@ -34,42 +69,141 @@ public abstract class Employee {
     }
 
     public double getBasicPay() {
-        return basicPay;
+        return Money.toDouble(getBasicPayCents());
+    }
+
+    public long getBasicPayCents() {
+        return pay.basicPayCents();
     }
 
     public void setBasicPay(double basicPay) {
-        if (basicPay < 0) {
-            throw new IllegalArgumentException("Basic pay cannot be negative");
-        }
-        this.basicPay = basicPay;
+        setBasicPayCents(Money.ofDouble(basicPay));
+    }
+
+    public synchronized void setBasicPayCents(long basicPayCents) {
+        PaySnapshot current = pay;
+        setPayCents(basicPayCents, current.hraCents(), current.bonusCents());
     }
 
     public double getHra() {
-        return hra;
+        return Money.toDouble(getHraCents());
+    }
+
+    public long getHraCents() {
+        return pay.hraCents();
     }
 
     public void setHra(double hra) {
-        if (hra < 0) {
-            throw new IllegalArgumentException("HRA cannot be negative");
-        }
-        this.hra = hra;
+        setHraCents(Money.ofDouble(hra));
+    }
+
+    public synchronized void setHraCents(long hraCents) {
+        PaySnapshot current = pay;
+        setPayCents(current.basicPayCents(), hraCents, current.bonusCents());
     }
 
     public double getBonus() {
-        return bonus;
+        return Money.toDouble(getBonusCents());
+    }
+
+    public long getBonusCents() {
+        return pay.bonusCents();
     }
 
     public void setBonus(double bonus) {
-        if (bonus < 0) {
-            throw new IllegalArgumentException("Bonus cannot be negative");
-        }
-        this.bonus = bonus;
+        setBonusCents(Money.ofDouble(bonus));
+    }
+
+    public synchronized void setBonusCents(long bonusCents) {
+        PaySnapshot current = pay;
+        setPayCents(current.basicPayCents(), current.hraCents(), bonusCents);
     }
 
     public void adjustSalary(double basicChange, double hraChange, double bonusChange) {
-        setBasicPay(this.basicPay + basicChange);
-        setHra(this.hra + hraChange);
-        setBonus(this.bonus + bonusChange);
+        adjustSalaryCents(Money.ofDouble(basicChange), Money.ofDouble(hraChange), Money.ofDouble(bonusChange));
+    }
+
+    public synchronized void adjustSalaryCents(long basicChange, long hraChange, long bonusChange) {
+        PaySnapshot current = pay;
+        setPayCents(Money.add(current.basicPayCents(), basicChange), Money.add(current.hraCents(), hraChange),
+            Money.add(current.bonusCents(), bonusChange));
+    }
+
+    // Throws exactly what adjustSalaryCents would for these changes, without applying them
+    void validateAdjustmentCents(long basicChange, long hraChange, long bonusChange) {
+        PaySnapshot current = pay;
+        requireNonNegative(effectiveBasicPayCents(Money.add(current.basicPayCents(), basicChange)), "Basic pay");
+        requireNonNegative(Money.add(current.hraCents(), hraChange), "HRA");
+        requireNonNegative(Money.add(current.bonusCents(), bonusChange), "Bonus");
+    }
+
+    // Sets all three components with a single salary refresh; like adjustSalary, components are
+    // assigned in order, so a rejected HRA or bonus leaves the earlier ones applied
+    protected final synchronized void setPayCents(long basicPayCents, long hraCents, long bonusCents) {
+        PaySnapshot current = pay;
+        long basic = current.basicPayCents();
+        long hra = current.hraCents();
+        long bonus = current.bonusCents();
+        try {
+            basic = requireNonNegative(effectiveBasicPayCents(basicPayCents), "Basic pay");
+            hra = requireNonNegative(hraCents, "HRA");
+            bonus = requireNonNegative(bonusCents, "Bonus");
+        } finally {
+            publish(basic, hra, bonus);
+        }
+    }
+
+    // Subclass mutators that change type-specific pay inputs call this once they are done
+    protected final synchronized void salaryChanged() {
+        PaySnapshot current = pay;
+        publish(current.basicPayCents(), current.hraCents(), current.bonusCents());
+    }
+
+    synchronized void attachSalaryListener(SalaryListener listener) {
+        if (salaryListener != null && salaryListener != listener) {
+            throw new IllegalStateException("Employee " + empId + " already belongs to another salary system");
+        }
+        calculateSalaryCents();
+        salaryListener = listener;
+    }
+
+    synchronized void detachSalaryListener(SalaryListener listener) {
+        if (salaryListener == listener) {
+            salaryListener = null;
+        }
+    }
+
+    private synchronized long refreshSalary() {
+        PaySnapshot current = pay;
+        if (!current.hasSalary()) {
+            current = new PaySnapshot(current.basicPayCents(), current.hraCents(), current.bonusCents(),
+                computeSalaryCents(current.basicPayCents(), current.hraCents(), current.bonusCents()));
+            pay = current;
+        }
+        return current.salaryCents();
+    }
+
+    // Caller holds the monitor. Without a listener the salary is left to be computed on first read,
+    // which also keeps subclass constructors from computing it before their own fields are set.
+    private void publish(long basicPayCents, long hraCents, long bonusCents) {
+        SalaryListener listener = salaryListener;
+        if (listener == null) {
+            pay = new PaySnapshot(basicPayCents, hraCents, bonusCents, SALARY_NOT_COMPUTED);
+            return;
+        }
+        long oldSalaryCents = pay.salaryCents(); // Always current while a listener is attached
+        long newSalaryCents = computeSalaryCents(basicPayCents, hraCents, bonusCents);
+        pay = new PaySnapshot(basicPayCents, hraCents, bonusCents, newSalaryCents);
+        if (newSalaryCents != oldSalaryCents) {
+            listener.salaryChanged(this, oldSalaryCents, newSalaryCents);
+        }
+    }
+
+    private static long requireNonNegative(long cents, String component) {
+        if (cents < 0) {
+            throw new IllegalArgumentException(component + " cannot be negative");
+        }
+        return cents;
     }
 
     @Override
@@ -2,77 +2,149 @@ package CodingMaximaSrp;
 
    import com.opencsv.CSVReader;
    import com.opencsv.exceptions.CsvValidationException;
+   import java.io.Reader;
    import java.io.StringReader;
    import java.io.IOException;
+   import java.nio.channels.Channels;
+   import java.nio.channels.FileChannel;
+   import java.nio.charset.StandardCharsets;
+   import java.nio.file.Files;
+   import java.nio.file.Path;
+   import java.nio.file.StandardOpenOption;
    import java.time.LocalDate;
    import java.util.ArrayList;
    import java.util.List;
+   import java.util.function.Consumer;
 
    public class EmployeeCsvLoader {
+       public static final int DEFAULT_BATCH_SIZE = 10_000;
+       private static final int READ_BUFFER_SIZE = 1 << 16;
+
+       @FunctionalInterface
+       interface RowParser {
+           Employee parse(String[] line);
+       }
+
        public static List<Employee> loadFullTimeEmployees(String csvData) throws CsvValidationException, IOException {
-           List<Employee> employees = new ArrayList<>();
-           try (CSVReader reader = new CSVReader(new StringReader(csvData))) {
-               reader.readNext(); // Skip header
-               String[] line;
-               while ((line = reader.readNext()) != null) {
-                   if (line.length < 7) continue; // Skip invalid rows
-                   try {
-                       String empId = line[0].trim();
-                       String name = line[1].trim();
-                       LocalDate hireDate = LocalDate.parse(line[2].trim());
-                       double basicPay = Double.parseDouble(line[3].trim());
-                       double hraPercentage = Double.parseDouble(line[4].trim()) / basicPay; // Convert hra to percentage
-                       double annualBonus = Double.parseDouble(line[5].trim()) / basicPay; // Convert bonus to percentage
-                       employees.add(new FullTimeEmployee(empId, name, hireDate, basicPay, hraPercentage, annualBonus));
-                   } catch (Exception e) {
-                       System.err.println("Error parsing full-time employee: " + e.getMessage());
-                   }
-               }
-           }
-           return employees;
+           return loadAll(new StringReader(csvData), null, RosterType.FULL_TIME);
        }
 
        public static List<Employee> loadContractEmployees(String csvData) throws CsvValidationException, IOException {
-           List<Employee> employees = new ArrayList<>();
-           try (CSVReader reader = new CSVReader(new StringReader(csvData))) {
-               reader.readNext(); // Skip header
-               String[] line;
-               while ((line = reader.readNext()) != null) {
-                   if (line.length < 6) continue; // Skip invalid rows
-                   try {
-                       String empId = line[0].trim();
-                       String name = line[1].trim();
-                       LocalDate hireDate = LocalDate.parse(line[2].trim());
-                       double contractRate = Double.parseDouble(line[3].trim());
-                       int contractDuration = Integer.parseInt(line[5].trim());
-                       employees.add(new ContractEmployee(empId, name, hireDate, contractRate, contractDuration));
-                   } catch (Exception e) {
-                       System.err.println("Error parsing contract employee: " + e.getMessage());
-                   }
-               }
-           }
-           return employees;
+           return loadAll(new StringReader(csvData), null, RosterType.CONTRACT);
        }
 
        public static List<Employee> loadDailyWageEmployees(String csvData) throws CsvValidationException, IOException {
+           return loadAll(new StringReader(csvData), null, RosterType.DAILY_WAGE);
+       }
+
+       public static List<Employee> loadFullTimeEmployees(Path csvFile) throws CsvValidationException, IOException {
+           return loadAll(openChannelReader(csvFile), csvFile, RosterType.FULL_TIME);
+       }
+
+       public static List<Employee> loadContractEmployees(Path csvFile) throws CsvValidationException, IOException {
+           return loadAll(openChannelReader(csvFile), csvFile, RosterType.CONTRACT);
+       }
+
+       public static List<Employee> loadDailyWageEmployees(Path csvFile) throws CsvValidationException, IOException {
+           return loadAll(openChannelReader(csvFile), csvFile, RosterType.DAILY_WAGE);
+       }
+
+       // Streams the file through a buffered channel and hands employees over batchSize at a time,
+       // so heap usage is bounded by the batch rather than the file
+       public static int loadFullTimeEmployees(Path csvFile, int batchSize, Consumer<List<Employee>> batchConsumer)
+               throws CsvValidationException, IOException {
+           return load(openChannelReader(csvFile), csvFile, RosterType.FULL_TIME, batchSize, batchConsumer);
+       }
+
+       public static int loadContractEmployees(Path csvFile, int batchSize, Consumer<List<Employee>> batchConsumer)
+               throws CsvValidationException, IOException {
+           return load(openChannelReader(csvFile), csvFile, RosterType.CONTRACT, batchSize, batchConsumer);
+       }
+
+       public static int loadDailyWageEmployees(Path csvFile, int batchSize, Consumer<List<Employee>> batchConsumer)
+               throws CsvValidationException, IOException {
+           return load(openChannelReader(csvFile), csvFile, RosterType.DAILY_WAGE, batchSize, batchConsumer);
+       }
+
+       static Employee parseFullTimeRow(String[] line) {
+           String empId = line[0].trim();
+           String name = line[1].trim();
+           LocalDate hireDate = LocalDate.parse(line[2].trim());
+           long basicPay = Money.ofDouble(Double.parseDouble(line[3].trim()));
+           long hra = Money.ofDouble(Double.parseDouble(line[4].trim()));
+           long annualBonus = Money.ofDouble(Double.parseDouble(line[5].trim()));
+           return FullTimeEmployee.ofCents(empId, name, hireDate, basicPay, hra, annualBonus);
+       }
+
+       static Employee parseContractRow(String[] line) {
+           String empId = line[0].trim();
+           String name = line[1].trim();
+           LocalDate hireDate = LocalDate.parse(line[2].trim());
+           long contractRate = Money.ofDouble(Double.parseDouble(line[3].trim()));
+           int contractDuration = Integer.parseInt(line[5].trim());
+           return ContractEmployee.ofCents(empId, name, hireDate, contractRate, contractDuration);
+       }
+
+       static Employee parseDailyWageRow(String[] line) {
+           String empId = line[0].trim();
+           String name = line[1].trim();
+           LocalDate hireDate = LocalDate.parse(line[2].trim());
+           long dailyRate = Money.ofDouble(Double.parseDouble(line[3].trim()));
+           int workingDays = Integer.parseInt(line[4].trim());
+           return DailyWageEmployee.ofCents(empId, name, hireDate, dailyRate, workingDays);
+       }
+
+       static Reader openChannelReader(Path csvFile) throws IOException {
+           FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ);
+           return Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), READ_BUFFER_SIZE);
+       }
+
+       private static List<Employee> loadAll(Reader source, Path csvFile, RosterType type) throws CsvValidationException, IOException {
            List<Employee> employees = new ArrayList<>();
-           try (CSVReader reader = new CSVReader(new StringReader(csvData))) {
+           load(source, csvFile, type, Integer.MAX_VALUE, employees::addAll);
+           return employees;
+       }
+
+       // csvFile is null for in-memory data
+       private static int load(Reader source, Path csvFile, RosterType type, int batchSize, Consumer<List<Employee>> batchConsumer)
+               throws CsvValidationException, IOException {
+           if (batchSize <= 0) {
+               throw new IllegalArgumentException("Batch size must be positive");
+           }
+           long start = Metrics.startTimer();
+           int loaded = 0;
+           int rejected = 0;
+           List<Employee> batch = new ArrayList<>(Math.min(batchSize, DEFAULT_BATCH_SIZE));
+           try (CSVReader reader = new CSVReader(source)) {
                reader.readNext(); // Skip header
                String[] line;
                while ((line = reader.readNext()) != null) {
-                   if (line.length < 7) continue; // Skip invalid rows
+                   if (line.length < type.getMinColumns()) { // Skip invalid rows
+                       rejected++;
+                       continue;
+                   }
                    try {
-                       String empId = line[0].trim();
-                       String name = line[1].trim();
-                       LocalDate hireDate = LocalDate.parse(line[2].trim());
-                       double dailyRate = Double.parseDouble(line[3].trim());
-                       int workingDays = Integer.parseInt(line[4].trim());
-                       employees.add(new DailyWageEmployee(empId, name, hireDate, dailyRate, workingDays));
+                       batch.add(type.getRowParser().parse(line));
                    } catch (Exception e) {
-                       System.err.println("Error parsing daily wage employee: " + e.getMessage());
+                       System.err.println("Error parsing " + type.getLabel() + " employee: " + e.getMessage());
+                       rejected++;
+                       continue;
+                   }
+                   if (batch.size() >= batchSize) {
+                       loaded += batch.size();
+                       batchConsumer.accept(batch);
+                       batch = new ArrayList<>(Math.min(batchSize, DEFAULT_BATCH_SIZE));
                    }
                }
            }
-           return employees;
+           if (!batch.isEmpty()) {
+               loaded += batch.size();
+               batchConsumer.accept(batch);
+           }
+           if (start != 0) {
+               Metrics.recordLoad(type, csvFile != null ? csvFile.toString() : "inline data", loaded, rejected,
+                   csvFile != null ? Files.size(csvFile) : 0, start);
+           }
+           return loaded;
        }
-   }
\ No newline at end of file
+   }
@@ -0,0 +1,249 @@
+package CodingMaximaSrp;
+
+   import java.util.ArrayList;
+   import java.util.Arrays;
+   import java.util.List;
+   import java.util.concurrent.ConcurrentHashMap;
+   import java.util.concurrent.locks.StampedLock;
+
+   // Employees by emp_id. Canonical lowercase UUIDs, which is every id our rosters produce, are
+   // parsed into two longs and kept in an open-addressing table with linear probing, so an entry
+   // is two longs and a reference rather than a map node, and a lookup hashes no String and
+   // allocates nothing. Any other id goes to a ConcurrentHashMap.
+   // Writes take the stamped lock exclusively; reads are optimistic and retry under the read lock
+   // only if a write overlapped them.
+   final class EmployeeIdMap {
+       private static final int MIN_CAPACITY = 64;
+       private static final int UUID_LENGTH = 36;
+       static final long NOT_HEX = Long.MIN_VALUE;
+       private static final byte[] HEX_DIGITS = new byte['f' + 1];
+
+       static {
+           Arrays.fill(HEX_DIGITS, (byte) -1);
+           for (int digit = 0; digit < 16; digit++) {
+               HEX_DIGITS[Character.forDigit(digit, 16)] = (byte) digit;
+           }
+       }
+
+       private final StampedLock lock = new StampedLock();
+       private final ConcurrentHashMap<String, Employee> otherIds = new ConcurrentHashMap<>();
+       private volatile Table table = new Table(MIN_CAPACITY);
+       private volatile int uuidCount;
+
+       // keys holds the high and low halves of slot i at 2i and 2i + 1; a null value marks a free slot
+       private static final class Table {
+           final long[] keys;
+           final Employee[] values;
+           final int mask;
+
+           Table(int capacity) {
+               keys = new long[capacity * 2];
+               values = new Employee[capacity];
+               mask = capacity - 1;
+           }
+
+           int home(long high, long low) {
+               long h = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+               return (int) (h ^ (h >>> 32)) & mask;
+           }
+
+           // Bounded by the capacity, so an optimistic read racing a write cannot spin forever
+           int find(long high, long low) {
+               int slot = home(high, low);
+               for (int probes = 0; probes <= mask; probes++) {
+                   if (values[slot] == null) {
+                       return -1;
+                   }
+                   if (keys[2 * slot] == high && keys[2 * slot + 1] == low) {
+                       return slot;
+                   }
+                   slot = (slot + 1) & mask;
+               }
+               return -1;
+           }
+       }
+
+       Employee get(String empId) {
+           long high;
+           long low;
+           if (!hasUuidShape(empId) || (high = highBits(empId)) == NOT_HEX || (low = lowBits(empId)) == NOT_HEX) {
+               return otherIds.get(empId);
+           }
+           long stamp = lock.tryOptimisticRead();
+           if (stamp != 0) {
+               Employee found = lookup(table, high, low);
+               if (lock.validate(stamp)) {
+                   return found;
+               }
+           }
+           stamp = lock.readLock();
+           try {
+               return lookup(table, high, low);
+           } finally {
+               lock.unlockRead(stamp);
+           }
+       }
+
+       // Returns the employee previously stored under the id, or null
+       Employee put(String empId, Employee emp) {
+           long high;
+           long low;
+           if (!hasUuidShape(empId) || (high = highBits(empId)) == NOT_HEX || (low = lowBits(empId)) == NOT_HEX) {
+               return otherIds.put(empId, emp);
+           }
+           long stamp = lock.writeLock();
+           try {
+               Table current = table;
+               int slot = current.find(high, low);
+               if (slot >= 0) {
+                   Employee previous = current.values[slot];
+                   current.values[slot] = emp;
+                   return previous;
+               }
+               if ((uuidCount + 1) * 4L > (current.mask + 1) * 3L) { // Keeps the load factor at or below 0.75
+                   current = resize(current);
+               }
+               insert(current, high, low, emp);
+               uuidCount++;
+               return null;
+           } finally {
+               lock.unlockWrite(stamp);
+           }
+       }
+
+       Employee remove(String empId) {
+           long high;
+           long low;
+           if (!hasUuidShape(empId) || (high = highBits(empId)) == NOT_HEX || (low = lowBits(empId)) == NOT_HEX) {
+               return otherIds.remove(empId);
+           }
+           long stamp = lock.writeLock();
+           try {
+               Table current = table;
+               int slot = current.find(high, low);
+               if (slot < 0) {
+                   return null;
+               }
+               Employee previous = current.values[slot];
+               deleteSlot(current, slot);
+               uuidCount--;
+               return previous;
+           } finally {
+               lock.unlockWrite(stamp);
+           }
+       }
+
+       int size() {
+           return uuidCount + otherIds.size();
+       }
+
+       // The UUID-keyed entries as of one moment, followed by the others
+       List<Employee> values() {
+           List<Employee> values = new ArrayList<>(size() + 16);
+           long stamp = lock.tryOptimisticRead();
+           if (stamp != 0) {
+               collect(table, values);
+               if (lock.validate(stamp)) {
+                   values.addAll(otherIds.values());
+                   return values;
+               }
+               values.clear();
+           }
+           stamp = lock.readLock();
+           try {
+               collect(table, values);
+           } finally {
+               lock.unlockRead(stamp);
+           }
+           values.addAll(otherIds.values());
+           return values;
+       }
+
+       private static Employee lookup(Table table, long high, long low) {
+           int slot = table.find(high, low);
+           return slot >= 0 ? table.values[slot] : null;
+       }
+
+       private static void collect(Table table, List<Employee> values) {
+           for (Employee emp : table.values) {
+               if (emp != null) {
+                   values.add(emp);
+               }
+           }
+       }
+
+       private Table resize(Table current) {
+           Table larger = new Table((current.mask + 1) * 2);
+           for (int slot = 0; slot <= current.mask; slot++) {
+               if (current.values[slot] != null) {
+                   insert(larger, current.keys[2 * slot], current.keys[2 * slot + 1], current.values[slot]);
+               }
+           }
+           table = larger;
+           return larger;
+       }
+
+       private static void insert(Table table, long high, long low, Employee emp) {
+           int slot = table.home(high, low);
+           while (table.values[slot] != null) {
+               slot = (slot + 1) & table.mask;
+           }
+           table.keys[2 * slot] = high;
+           table.keys[2 * slot + 1] = low;
+           table.values[slot] = emp;
+       }
+
+       // Backward-shift deletion: later entries of the probe run move up into the gap, so the table
+       // needs no tombstones and lookups stay short after many removals
+       private static void deleteSlot(Table table, int gap) {
+           int slot = gap;
+           while (true) {
+               slot = (slot + 1) & table.mask;
+               if (table.values[slot] == null) {
+                   break;
+               }
+               int home = table.home(table.keys[2 * slot], table.keys[2 * slot + 1]);
+               // The entry may fill the gap only if its home does not lie cyclically in (gap, slot]
+               boolean homeAfterGap = gap <= slot ? (home > gap && home <= slot) : (home > gap || home <= slot);
+               if (!homeAfterGap) {
+                   table.keys[2 * gap] = table.keys[2 * slot];
+                   table.keys[2 * gap + 1] = table.keys[2 * slot + 1];
+                   table.values[gap] = table.values[slot];
+                   gap = slot;
+               }
+           }
+           table.values[gap] = null;
+       }
+
+       // Length and dashes only; the digits are checked while parsing
+       static boolean hasUuidShape(String id) {
+           return id != null && id.length() == UUID_LENGTH && id.charAt(8) == '-' && id.charAt(13) == '-'
+               && id.charAt(18) == '-' && id.charAt(23) == '-';
+       }
+
+       // Only lowercase hex parses, so the mapping is one-to-one and "ABC..." and "abc..." stay distinct ids.
+       // NOT_HEX marks a half with any other character; the one real UUID half equal to it takes the
+       // fallback map as well, the same way on every call.
+       static long highBits(String uuid) {
+           return hex(uuid, 14, 18, hex(uuid, 9, 13, hex(uuid, 0, 8, 0)));
+       }
+
+       static long lowBits(String uuid) {
+           return hex(uuid, 24, UUID_LENGTH, hex(uuid, 19, 23, 0));
+       }
+
+       // Table lookups rather than a digit-or-letter branch, which random hex mispredicts half the time
+       private static long hex(String uuid, int from, int to, long bits) {
+           if (bits == NOT_HEX) {
+               return NOT_HEX;
+           }
+           int digits = 0;
+           for (int i = from; i < to; i++) {
+               char c = uuid.charAt(i);
+               int digit = c < HEX_DIGITS.length ? HEX_DIGITS[c] : -1;
+               digits |= digit;
+               bits = (bits << 4) | (digit & 0xF);
+           }
+           return digits < 0 ? NOT_HEX : bits;
+       }
+   }
@@ -0,0 +1,59 @@
+package CodingMaximaSrp;
+
+   import java.util.Collection;
+   import java.util.Collections;
+   import java.util.Set;
+   import java.util.concurrent.ConcurrentHashMap;
+   import java.util.concurrent.atomic.AtomicInteger;
+   import java.util.concurrent.atomic.AtomicLong;
+
+   // The employees of one concrete class, with their count and salary total kept as running
+   // aggregates, so type-scoped operations and per-type figures touch only this partition
+   class EmployeePartition {
+       private final Class<? extends Employee> employeeType;
+       private final Set<Employee> members = ConcurrentHashMap.newKeySet();
+       private final AtomicInteger count = new AtomicInteger();
+       private final AtomicLong totalSalaryCents = new AtomicLong();
+
+       EmployeePartition(Class<? extends Employee> employeeType) {
+           this.employeeType = employeeType;
+       }
+
+       void add(Employee emp) {
+           if (members.add(emp)) {
+               count.incrementAndGet();
+               totalSalaryCents.addAndGet(emp.calculateSalaryCents());
+           }
+       }
+
+       void remove(Employee emp) {
+           if (members.remove(emp)) {
+               count.decrementAndGet();
+               totalSalaryCents.addAndGet(-emp.calculateSalaryCents());
+           }
+       }
+
+       void salaryChanged(long oldSalaryCents, long newSalaryCents) {
+           totalSalaryCents.addAndGet(newSalaryCents - oldSalaryCents);
+       }
+
+       boolean isPartOf(Class<? extends Employee> type) {
+           return type.isAssignableFrom(employeeType);
+       }
+
+       Class<? extends Employee> getEmployeeType() {
+           return employeeType;
+       }
+
+       Collection<Employee> members() {
+           return Collections.unmodifiableSet(members);
+       }
+
+       int size() {
+           return count.get();
+       }
+
+       long getTotalSalaryCents() {
+           return totalSalaryCents.get();
+       }
+   }
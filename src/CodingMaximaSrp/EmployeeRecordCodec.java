@@ -0,0 +1,72 @@
+package CodingMaximaSrp;
+
+   import java.nio.ByteBuffer;
+   import java.nio.charset.StandardCharsets;
+   import java.time.LocalDate;
+
+   // Fixed binary layout of one employee for snapshots: emp_id and name as length-prefixed UTF-8,
+   // the hire date as an epoch day, then the exact pay state of the roster type in cents. Decoding
+   // goes through the restore constructors, so a decoded employee matches the encoded one exactly.
+   final class EmployeeRecordCodec {
+       private EmployeeRecordCodec() {
+       }
+
+       // Throws BufferOverflowException, leaving the position undefined, if the record does not fit
+       static void encode(Employee emp, RosterType type, ByteBuffer out) {
+           putString(out, emp.getEmpId());
+           putString(out, emp.getName());
+           out.putLong(emp.getHireDate().toEpochDay());
+           synchronized (emp) { // Type-specific fields and pay components from the same update
+               Employee.PaySnapshot pay = emp.paySnapshot();
+               switch (type) {
+                   case FULL_TIME:
+                       out.putLong(pay.basicPayCents()).putLong(pay.hraCents()).putLong(pay.bonusCents());
+                       out.putLong(((FullTimeEmployee) emp).getPfDeductionCents());
+                       break;
+                   case CONTRACT:
+                       out.putLong(pay.basicPayCents()).putLong(pay.hraCents()).putLong(pay.bonusCents());
+                       out.putInt(((ContractEmployee) emp).getContractDurationMonths());
+                       break;
+                   case DAILY_WAGE:
+                       DailyWageEmployee dailyWage = (DailyWageEmployee) emp;
+                       out.putLong(dailyWage.getDailyRateCents()).putInt(dailyWage.getWorkingDays());
+                       out.putLong(pay.basicPayCents()).putLong(pay.hraCents()).putLong(pay.bonusCents());
+                       break;
+                   default:
+                       throw new IllegalStateException("Unsupported roster type " + type);
+               }
+           }
+       }
+
+       static Employee decode(RosterType type, ByteBuffer in) {
+           String empId = getString(in);
+           String name = getString(in);
+           LocalDate hireDate = LocalDate.ofEpochDay(in.getLong());
+           switch (type) {
+               case FULL_TIME:
+                   return new FullTimeEmployee(empId, name, hireDate, in.getLong(), in.getLong(), in.getLong(), in.getLong());
+               case CONTRACT:
+                   return new ContractEmployee(empId, name, hireDate, in.getLong(), in.getLong(), in.getLong(), in.getInt());
+               case DAILY_WAGE:
+                   return new DailyWageEmployee(empId, name, hireDate, in.getLong(), in.getInt(), in.getLong(), in.getLong(), in.getLong());
+               default:
+                   throw new IllegalStateException("Unsupported roster type " + type);
+           }
+       }
+
+       private static void putString(ByteBuffer out, String value) {
+           byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+           out.putInt(bytes.length);
+           out.put(bytes);
+       }
+
+       private static String getString(ByteBuffer in) {
+           int length = in.getInt();
+           if (length < 0 || length > in.remaining()) {
+               throw new IllegalArgumentException("Invalid string length " + length);
+           }
+           byte[] bytes = new byte[length];
+           in.get(bytes);
+           return new String(bytes, StandardCharsets.UTF_8);
+       }
+   }
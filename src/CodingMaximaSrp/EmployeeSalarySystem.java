@@ -1,26 +1,20 @@
 package CodingMaximaSrp;
 
-   import com.opencsv.exceptions.CsvValidationException;
    import java.time.LocalDate;
+   import java.util.Iterator;
    import java.util.List;
    import java.util.Map;
    import java.io.IOException;
-   import java.nio.file.Files;
+   import java.nio.file.Path;
    import java.nio.file.Paths;
 
    public class EmployeeSalarySystem {
        public static void main(String[] args) {
            try {
-               // Load employee data from CSV files
-               List<Employee> fullTimeEmployees = EmployeeCsvLoader.loadFullTimeEmployees(loadFileData("full_time_employees.csv"));
-               List<Employee> contractEmployees = EmployeeCsvLoader.loadContractEmployees(loadFileData("contract_employees.csv"));
-               List<Employee> dailyWageEmployees = EmployeeCsvLoader.loadDailyWageEmployees(loadFileData("daily_wage_employees.csv"));
-
-               // Create salary system and add employees
+               // Load the three roster files in parallel straight into the salary system
                SalarySystem system = new SalarySystem();
-               system.addEmployees(fullTimeEmployees);
-               system.addEmployees(contractEmployees);
-               system.addEmployees(dailyWageEmployees);
+               new ParallelEmployeeLoader().loadAll(dataFile("full_time_employees.csv"),
+                   dataFile("contract_employees.csv"), dataFile("daily_wage_employees.csv"), system);
 
                // Example operations
                // 1. Apply bulk salary adjustment for full-time employees
@@ -39,9 +33,9 @@ package CodingMaximaSrp;
 
                // 4. Filter employees by hire date
                System.out.println("\nEmployees hired in 2023:");
-               List<Employee> hiredIn2023 = system.filterEmployeesByHireDate(
+               Iterator<Employee> hiredIn2023 = system.iterateEmployeesByHireDate(
                    LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
-               hiredIn2023.forEach(System.out::println);
+               hiredIn2023.forEachRemaining(System.out::println);
 
                // 5. Sort employees by salary (descending)
                System.out.println("\nEmployees sorted by salary (descending):");
@@ -59,21 +53,19 @@ package CodingMaximaSrp;
                System.out.println("Average Salary: $" + String.format("%.2f", report.get("averageSalary")));
 
                // 7. Export payroll to CSV
-               system.exportPayrollToCsv("payroll_report.csv");
-               System.out.println("\nPayroll exported to payroll_report.csv");
+               try {
+                   system.exportPayrollToCsv("payroll_report.csv");
+                   System.out.println("\nPayroll exported to payroll_report.csv");
+               } catch (IOException e) {
+                   System.err.println("Error writing to CSV: " + e.getMessage());
+               }
 
-           } catch (CsvValidationException | IOException e) {
+           } catch (IOException e) {
                System.err.println("Error loading CSV data: " + e.getMessage());
            }
        }
 
-       private static String loadFileData(String filename) {
-           try {
-               String path = "C:\\\\Users\\\\hemav\\\\eclipse-workspace\\\\CodingMaximaSrpOcpExample\\\\" + filename;
-               return Files.readString(Paths.get(path));
-           } catch (IOException e) {
-               System.err.println("Error reading file " + filename + ": " + e.getMessage());
-               return "";
-           }
+       private static Path dataFile(String filename) {
+           return Paths.get("C:\\\\Users\\\\hemav\\\\eclipse-workspace\\\\CodingMaximaSrpOcpExample\\\\" + filename);
        }
    }
\ No newline at end of file
@@ -3,24 +3,62 @@ package CodingMaximaSrp;
    import java.time.LocalDate;
 
    public class FullTimeEmployee extends Employee {
-       private double pfDeduction;
+       private static final long PF_BASIS_POINTS = 1200; // 12% of basic pay
+       private static final long INCREMENT_HRA_BASIS_POINTS = 3000; // HRA grows by 30% of an increment
+
+       private final long pfDeductionCents;
 
        public FullTimeEmployee(String empId, String name, LocalDate hireDate, double basicPay, double hraPercentage, double annualBonus) {
+           this(empId, name, hireDate, Money.ofDouble(basicPay), Money.ofDouble(basicPay * hraPercentage),
+               Money.ofDouble(basicPay * annualBonus), Money.percent(Money.ofDouble(basicPay), PF_BASIS_POINTS));
+       }
+
+       // Restores an employee with exact pay components, e.g. from a columnar store
+       FullTimeEmployee(String empId, String name, LocalDate hireDate, long basicPayCents, long hraCents, long bonusCents, long pfDeductionCents) {
            super(empId, name, hireDate);
-           setBasicPay(basicPay);
-           setHra(basicPay * hraPercentage);
-           setBonus(basicPay * annualBonus);
-           this.pfDeduction = basicPay * 0.12;
+           setPayCents(basicPayCents, hraCents, bonusCents);
+           this.pfDeductionCents = pfDeductionCents;
+       }
+
+       // Roster rows carry absolute HRA and bonus amounts rather than percentages
+       static FullTimeEmployee ofCents(String empId, String name, LocalDate hireDate, long basicPayCents, long hraCents, long bonusCents) {
+           return new FullTimeEmployee(empId, name, hireDate, basicPayCents, hraCents, bonusCents, Money.percent(basicPayCents, PF_BASIS_POINTS));
        }
 
        @Override
-       public double calculateSalary() {
-           double monthlySalary = getBasicPay() + getHra() + (getBonus() / 12) - pfDeduction;
-           return Math.round(monthlySalary * 100.0) / 100.0;
+       protected long computeSalaryCents(long basicPayCents, long hraCents, long bonusCents) {
+           return salaryCents(basicPayCents, hraCents, bonusCents, pfDeductionCents);
+       }
+
+       // basic + hra + bonus / 12 - pf, rounded once: 12 * (basic + hra - pf) + bonus is exact in cents
+       static long salaryCents(long basicPayCents, long hraCents, long bonusCents, long pfDeductionCents) {
+           long monthlyTimesTwelve = Money.add(Money.times(Money.subtract(Money.add(basicPayCents, hraCents), pfDeductionCents), 12), bonusCents);
+           return Money.divide(monthlyTimesTwelve, 12);
+       }
+
+       long getPfDeductionCents() {
+           return pfDeductionCents;
+       }
+
+       public synchronized void applyAnnualIncrement(double incrementPercentage) {
+           long increment = incrementCents(getBasicPayCents(), incrementPercentage);
+           adjustSalaryCents(increment, incrementHraCents(increment), 0);
+       }
+
+       // Like applyAnnualIncrement, but a rejected increment changes nothing, where applyAnnualIncrement
+       // keeps the components assigned before the rejected one
+       synchronized void applyAnnualIncrementOrNothing(double incrementPercentage) {
+           long increment = incrementCents(getBasicPayCents(), incrementPercentage);
+           long hraIncrement = incrementHraCents(increment);
+           validateAdjustmentCents(increment, hraIncrement, 0);
+           adjustSalaryCents(increment, hraIncrement, 0);
+       }
+
+              static long incrementCents(long basicPayCents, double incrementPercentage) {
+           return Money.multiply(basicPayCents, incrementPercentage / 100);
        }
 
-       public void applyAnnualIncrement(double incrementPercentage) {
-           double increment = getBasicPay() * (incrementPercentage / 100);
-           adjustSalary(increment, increment * 0.3, 0);
+       static long incrementHraCents(long incrementCents) {
+           return Money.percent(incrementCents, INCREMENT_HRA_BASIS_POINTS);
        }
-   }
\ No newline at end of file
+   }
@@ -0,0 +1,89 @@
+package CodingMaximaSrp;
+
+   import java.time.LocalDate;
+   import java.time.Year;
+   import java.time.YearMonth;
+   import java.util.ArrayList;
+   import java.util.Collections;
+   import java.util.Iterator;
+   import java.util.List;
+   import java.util.Map;
+   import java.util.NavigableMap;
+   import java.util.SortedMap;
+   import java.util.TreeMap;
+   import java.util.concurrent.ConcurrentSkipListMap;
+   import java.util.function.LongFunction;
+
+   // Employees ordered by hire date (epoch day), plus a per-day hire count. Range lookups cost
+   // O(log n + k); counts walk the per-day totals, so they cost O(log n + days with hires in range)
+   // and never touch Employee objects. Hire dates are immutable, so only adds and removals update it.
+   class HireDateIndex {
+       private final ConcurrentSkipListMap<IndexKey, Employee> byHireDate = new ConcurrentSkipListMap<>();
+       private final ConcurrentSkipListMap<Long, Integer> hiresPerDay = new ConcurrentSkipListMap<>();
+
+       void add(Employee emp) {
+           long day = emp.getHireDate().toEpochDay();
+           if (byHireDate.put(new IndexKey(day, emp.getEmpId()), emp) == null) {
+               hiresPerDay.merge(day, 1, Integer::sum);
+           }
+       }
+
+       // Removes only this instance, so a replacement with the same emp_id and hire date survives
+       void remove(Employee emp) {
+           long day = emp.getHireDate().toEpochDay();
+           if (byHireDate.remove(new IndexKey(day, emp.getEmpId()), emp)) {
+               hiresPerDay.merge(day, -1, (count, delta) -> count + delta == 0 ? null : count + delta);
+           }
+       }
+
+       List<Employee> range(LocalDate startDate, LocalDate endDate) {
+           return new ArrayList<>(slice(startDate, endDate).values());
+       }
+
+       // Weakly consistent view: reflects concurrent changes without ever throwing
+       Iterator<Employee> iterator(LocalDate startDate, LocalDate endDate) {
+           return Collections.unmodifiableCollection(slice(startDate, endDate).values()).iterator();
+       }
+
+       int count(LocalDate startDate, LocalDate endDate) {
+           int count = 0;
+           for (int hires : days(startDate, endDate).values()) {
+               count += hires;
+           }
+           return count;
+       }
+
+       SortedMap<Year, Integer> countByYear(LocalDate startDate, LocalDate endDate) {
+           return bucket(startDate, endDate, day -> Year.from(LocalDate.ofEpochDay(day)));
+       }
+
+       SortedMap<YearMonth, Integer> countByMonth(LocalDate startDate, LocalDate endDate) {
+           return bucket(startDate, endDate, day -> YearMonth.from(LocalDate.ofEpochDay(day)));
+       }
+
+       private <K extends Comparable<K>> SortedMap<K, Integer> bucket(LocalDate startDate, LocalDate endDate, LongFunction<K> bucketOf) {
+           SortedMap<K, Integer> buckets = new TreeMap<>();
+           for (Map.Entry<Long, Integer> entry : days(startDate, endDate).entrySet()) {
+               buckets.merge(bucketOf.apply(entry.getKey()), entry.getValue(), Integer::sum);
+           }
+           return buckets;
+       }
+
+       private NavigableMap<IndexKey, Employee> slice(LocalDate startDate, LocalDate endDate) {
+           long startDay = startDate.toEpochDay();
+           long endDay = endDate.toEpochDay();
+           if (startDay > endDay) {
+               return Collections.emptyNavigableMap();
+           }
+           return byHireDate.subMap(IndexKey.lowerBound(startDay), true, IndexKey.lowerBound(endDay + 1), false);
+       }
+
+       private NavigableMap<Long, Integer> days(LocalDate startDate, LocalDate endDate) {
+           long startDay = startDate.toEpochDay();
+           long endDay = endDate.toEpochDay();
+           if (startDay > endDay) {
+               return Collections.emptyNavigableMap();
+           }
+           return hiresPerDay.subMap(startDay, true, endDay, true);
+       }
+   }
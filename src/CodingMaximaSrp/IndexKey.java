@@ -0,0 +1,21 @@
+package CodingMaximaSrp;
+
+   // Sort key for secondary indexes: a primitive value with emp_id as tie-breaker. A null emp_id
+   // sorts before every real one, which makes (value, null) the lower bound of that value's run.
+   record IndexKey(long value, String empId) implements Comparable<IndexKey> {
+       static IndexKey lowerBound(long value) {
+           return new IndexKey(value, null);
+       }
+
+       @Override
+       public int compareTo(IndexKey other) {
+           int byValue = Long.compare(value, other.value);
+           if (byValue != 0) {
+               return byValue;
+           }
+           if (empId == null || other.empId == null) {
+               return empId == null ? (other.empId == null ? 0 : -1) : 1;
+           }
+           return empId.compareTo(other.empId);
+       }
+   }
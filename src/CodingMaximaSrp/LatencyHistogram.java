@@ -0,0 +1,93 @@
+package CodingMaximaSrp;
+
+   import java.util.concurrent.atomic.AtomicLong;
+   import java.util.concurrent.atomic.AtomicLongArray;
+   import java.util.concurrent.atomic.LongAdder;
+
+   // Lock-free log-linear histogram of nanosecond latencies. Each power of two is split into eight
+   // buckets, so a percentile is reported as the upper bound of its bucket, at most 12.5% above the
+   // true value. Recording is a few atomic increments and never allocates.
+   public class LatencyHistogram {
+       private static final int SUB_BUCKET_BITS = 3;
+       private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+       private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+       private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+       private final LongAdder count = new LongAdder();
+       private final LongAdder totalNanos = new LongAdder();
+       private final AtomicLong maxNanos = new AtomicLong();
+
+       public void record(long nanos) {
+           if (nanos < 0) {
+               nanos = 0; // The clock is monotonic, but callers may pass a difference of two readings
+           }
+           counts.incrementAndGet(bucketOf(nanos));
+           count.increment();
+           totalNanos.add(nanos);
+           if (nanos > maxNanos.get()) {
+               maxNanos.accumulateAndGet(nanos, Math::max);
+           }
+       }
+
+       public long getCount() {
+           return count.sum();
+       }
+
+       public long getTotalNanos() {
+           return totalNanos.sum();
+       }
+
+       public long getMaxNanos() {
+           return maxNanos.get();
+       }
+
+       public double getMeanNanos() {
+           long n = count.sum();
+           return n == 0 ? 0.0 : (double) totalNanos.sum() / n;
+       }
+
+       // quantile between 0 and 1; 0 when nothing has been recorded. Concurrent recording may make
+       // the result lag slightly behind the count.
+       public long getPercentileNanos(double quantile) {
+           if (!(quantile >= 0 && quantile <= 1)) {
+               throw new IllegalArgumentException("Quantile must be between 0 and 1");
+           }
+           long[] snapshot = new long[BUCKETS];
+           long total = 0;
+           for (int i = 0; i < BUCKETS; i++) {
+               snapshot[i] = counts.get(i);
+               total += snapshot[i];
+           }
+           if (total == 0) {
+               return 0;
+           }
+           long rank = Math.max(1, (long) Math.ceil(quantile * total));
+           long seen = 0;
+           for (int i = 0; i < BUCKETS; i++) {
+               seen += snapshot[i];
+               if (seen >= rank) {
+                   return Math.min(upperBoundOf(i), maxNanos.get());
+               }
+           }
+           return maxNanos.get();
+       }
+
+       // Values below 8 get a bucket each; above that, the top four significant bits pick the bucket
+       static int bucketOf(long nanos) {
+           if (nanos < SUB_BUCKETS) {
+               return (int) nanos;
+           }
+           int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+           int subBucket = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+           return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+       }
+
+       static long upperBoundOf(int bucket) {
+           if (bucket < SUB_BUCKETS) {
+               return bucket;
+           }
+           int shift = bucket / SUB_BUCKETS - 1;
+           long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+           return lowerBound + (1L << shift) - 1;
+       }
+   }
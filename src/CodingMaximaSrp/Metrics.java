@@ -0,0 +1,55 @@
+package CodingMaximaSrp;
+
+   // Holds the installed MetricsRegistry for the whole process. The timing helpers return 0 while
+   // metrics are disabled, and a 0 start makes the matching record call a no-op, so disabled
+   // metrics cost one volatile read per hook.
+   public final class Metrics {
+       private static volatile MetricsRegistry registry = MetricsRegistry.NOOP;
+
+       private Metrics() {
+       }
+
+       public static void install(MetricsRegistry metricsRegistry) {
+           if (metricsRegistry == null) {
+               throw new IllegalArgumentException("Metrics registry cannot be null");
+           }
+           registry = metricsRegistry;
+       }
+
+       public static void uninstall() {
+           registry = MetricsRegistry.NOOP;
+       }
+
+       public static MetricsRegistry registry() {
+           return registry;
+       }
+
+       static long startTimer() {
+           return registry.isEnabled() ? System.nanoTime() : 0;
+       }
+
+       static void recordOperation(MetricsRegistry.Operation operation, long startNanos) {
+           if (startNanos != 0) {
+               registry.recordOperation(operation, System.nanoTime() - startNanos);
+           }
+       }
+
+       static void recordSalaryCalculation(boolean cached) {
+           MetricsRegistry current = registry;
+           if (current.isEnabled()) {
+               current.recordSalaryCalculation(cached);
+           }
+       }
+
+       static void recordLoad(RosterType type, String source, long rowsParsed, long rowsRejected, long bytesRead, long startNanos) {
+           if (startNanos != 0) {
+               registry.recordLoad(type, source, rowsParsed, rowsRejected, bytesRead, System.nanoTime() - startNanos);
+           }
+       }
+
+       static void recordExport(long rows, long bytes, long startNanos) {
+           if (startNanos != 0) {
+               registry.recordExport(rows, bytes, System.nanoTime() - startNanos);
+           }
+       }
+   }
@@ -0,0 +1,57 @@
+package CodingMaximaSrp;
+
+   // Receives counters and timings from the loaders, SalarySystem and Employee. Install an
+   // implementation with Metrics.install; until then every hook goes to NOOP, whose calls inline
+   // to nothing and which tells callers not to read the clock at all. Implementations are called
+   // from many threads at once and must be thread-safe.
+   public interface MetricsRegistry {
+       MetricsRegistry NOOP = new MetricsRegistry() {
+           @Override
+           public boolean isEnabled() {
+               return false;
+           }
+
+           @Override
+           public void recordLoad(RosterType type, String source, long rowsParsed, long rowsRejected, long bytesRead, long elapsedNanos) {
+           }
+
+           @Override
+           public void recordOperation(Operation operation, long elapsedNanos) {
+           }
+
+           @Override
+           public void recordSalaryCalculation(boolean cached) {
+           }
+
+           @Override
+           public void recordExport(long rows, long bytes, long elapsedNanos) {
+           }
+       };
+
+       // SalarySystem calls that are timed
+       enum Operation {
+           ADD_EMPLOYEES, REMOVE_EMPLOYEE, GET_EMPLOYEE_SALARY, APPLY_INCREMENT, ADJUST_SALARY, EXTEND_CONTRACT,
+           UPDATE_WORKING_DAYS, BULK_SALARY_ADJUSTMENT, FILTER_BY_SALARY, FILTER_BY_TYPE, FILTER_BY_HIRE_DATE,
+           FILTER_BY_PREDICATE, TOP_EARNERS, BOTTOM_EARNERS, SORT_BY_SALARY, SORT_BY_NAME, PAGE_BY_NAME,
+           FIND_BY_NAME, FIND_BY_NAME_PREFIX, FIND_BY_SIMILAR_NAME, PAYROLL_REPORT, STREAM_PAYROLL,
+           EXPORT_PAYROLL, SAVE_SNAPSHOT, LOAD_SNAPSHOT, RECOVER, BATCH_GET_SALARIES, BATCH_APPLY_INCREMENTS, BATCH_REMOVE_EMPLOYEES,
+           EVALUATE_SCENARIO, COMMIT_SCENARIO, PROJECT_PAYROLL
+       }
+
+       // False lets callers skip timing entirely
+       default boolean isEnabled() {
+           return true;
+       }
+
+       // One roster file or string loaded. bytesRead is 0 for in-memory data; the elapsed time
+       // covers the whole load, including handing batches to the consumer.
+       void recordLoad(RosterType type, String source, long rowsParsed, long rowsRejected, long bytesRead, long elapsedNanos);
+
+       void recordOperation(Operation operation, long elapsedNanos);
+
+       // Every calculateSalary call; cached is false when the salary had to be computed
+       void recordSalaryCalculation(boolean cached);
+
+       // One payroll export; bytes are counted before compression
+       void recordExport(long rows, long bytes, long elapsedNanos);
+   }
@@ -0,0 +1,56 @@
+package CodingMaximaSrp;
+
+   // Fixed-point money as a long count of cents. Every operation is static and works on primitives,
+   // so payroll arithmetic is exact integer math with no allocation. Rounding is half-up throughout,
+   // matching the Math.round(x * 100.0) / 100.0 convention used before.
+   public final class Money {
+       public static final long CENTS_PER_UNIT = 100;
+       private static final long BASIS_POINTS_PER_UNIT = 10_000;
+
+       private Money() {
+       }
+
+       public static long ofDouble(double amount) {
+           if (!Double.isFinite(amount)) {
+               throw new IllegalArgumentException("Amount must be finite: " + amount);
+           }
+           return Math.round(amount * CENTS_PER_UNIT);
+       }
+
+       public static double toDouble(long cents) {
+           return cents / (double) CENTS_PER_UNIT;
+       }
+
+       public static long add(long cents, long otherCents) {
+           return Math.addExact(cents, otherCents);
+       }
+
+       public static long subtract(long cents, long otherCents) {
+           return Math.subtractExact(cents, otherCents);
+       }
+
+       public static long times(long cents, long quantity) {
+           return Math.multiplyExact(cents, quantity);
+       }
+
+       // Exact share of an amount, e.g. percent(basic, 1200) for 12%
+       public static long percent(long cents, long basisPoints) {
+           return divide(Math.multiplyExact(cents, basisPoints), BASIS_POINTS_PER_UNIT);
+       }
+
+       // For rates that are only known as a double, such as a caller-supplied increment percentage
+       public static long multiply(long cents, double rate) {
+           double product = cents * rate;
+           if (!Double.isFinite(product)) {
+               throw new IllegalArgumentException("Rate must be finite: " + rate);
+           }
+           return Math.round(product);
+       }
+
+       public static long divide(long cents, long divisor) {
+           if (divisor <= 0) {
+               throw new IllegalArgumentException("Divisor must be positive");
+           }
+           return Math.floorDiv(Math.addExact(Math.multiplyExact(cents, 2), divisor), Math.multiplyExact(divisor, 2));
+       }
+   }
@@ -0,0 +1,385 @@
+package CodingMaximaSrp;
+
+   import java.io.BufferedInputStream;
+   import java.io.Closeable;
+   import java.io.DataInputStream;
+   import java.io.EOFException;
+   import java.io.IOException;
+   import java.io.UncheckedIOException;
+   import java.nio.BufferOverflowException;
+   import java.nio.BufferUnderflowException;
+   import java.nio.ByteBuffer;
+   import java.nio.channels.Channels;
+   import java.nio.channels.FileChannel;
+   import java.nio.charset.StandardCharsets;
+   import java.nio.file.Path;
+   import java.nio.file.StandardOpenOption;
+   import java.time.DateTimeException;
+   import java.util.List;
+   import java.util.concurrent.locks.Condition;
+   import java.util.concurrent.locks.ReentrantLock;
+   import java.util.zip.CRC32;
+
+   // Append-only log of SalarySystem mutations with group commit. Appending only copies the record
+   // into a shared buffer; one flusher thread writes whatever has accumulated and forces it to disk
+   // with a single fsync, so concurrent writers share the cost of each flush. Callers that need
+   // durability wait for their sequence number with awaitDurable.
+   //
+   //   record  payload length (int), CRC32 of sequence, op and payload (int), sequence (long), op (byte), payload
+   //
+   // A torn record at the end of the file, left by a crash mid-write, is cut off when the journal is
+   // opened. A bad record with more of the file after it is corruption, and opening fails instead.
+   class MutationJournal implements Closeable {
+       private static final int RECORD_HEADER_SIZE = 17;
+       private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+       private static final int MAX_RECORD_SIZE = 1 << 24;
+
+       enum Op {
+           ADD, REMOVE, INCREMENT, BULK_ADJUSTMENT, ADJUST_SALARY, EXTEND_CONTRACT, UPDATE_WORKING_DAYS
+       }
+
+       private final FileChannel channel;
+       private final ReentrantLock lock = new ReentrantLock();
+       private final Condition pendingWrites = lock.newCondition();
+       private final Condition flushed = lock.newCondition();
+       private final Thread flusher;
+       private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE); // Guarded by lock
+       private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE); // Owned by the flusher
+       private long lastSequence;
+       private long durableSequence;
+       private IOException failure;
+       private boolean closed;
+       private final int replayed;
+
+       private MutationJournal(FileChannel channel, long lastSequence, int replayed) {
+           this.channel = channel;
+           this.lastSequence = lastSequence;
+           this.durableSequence = lastSequence;
+           this.replayed = replayed;
+           this.flusher = new Thread(this::runFlusher, "salary-journal-flusher");
+           flusher.setDaemon(true);
+           flusher.start();
+       }
+
+       // Replays every record after snapshotSequence into the system, then opens the file for appending
+       static MutationJournal open(Path file, long snapshotSequence, SalarySystem system) throws IOException {
+           FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+           try {
+               long fileSize = channel.size();
+               long validEnd = 0;
+               long sequence = snapshotSequence;
+               int replayed = 0;
+               DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), INITIAL_BUFFER_SIZE));
+               while (true) {
+                   byte[] body;
+                   int checksum;
+                   try {
+                       int length = in.readInt();
+                       checksum = in.readInt();
+                       if (length < RECORD_HEADER_SIZE - 8 || length > MAX_RECORD_SIZE) {
+                           if (onlyZerosFrom(channel, validEnd, fileSize)) break; // Space allocated but never written
+                           throw new IOException("Corrupt mutation journal record at offset " + validEnd);
+                       }
+                       body = new byte[length];
+                       in.readFully(body);
+                   } catch (EOFException e) {
+                       break; // Cut short by the end of the file
+                   }
+                   CRC32 crc = new CRC32();
+                   crc.update(body);
+                   if ((int) crc.getValue() != checksum) {
+                       if (validEnd + 8 + body.length == fileSize) break; // The last record, partly written
+                       throw new IOException("Corrupt mutation journal record at offset " + validEnd);
+                   }
+                   ByteBuffer record = ByteBuffer.wrap(body);
+                   long recordSequence = record.getLong();
+                   if (recordSequence > sequence) {
+                       apply(record.get(), record, system);
+                       sequence = recordSequence;
+                       replayed++;
+                   }
+                   validEnd += 8 + body.length;
+               }
+               channel.truncate(validEnd); // Only a torn tail gets here, so new records follow valid ones
+               channel.position(validEnd);
+               return new MutationJournal(channel, sequence, replayed);
+           } catch (IOException | RuntimeException e) {
+               channel.close();
+               throw e;
+           }
+       }
+
+       private static boolean onlyZerosFrom(FileChannel channel, long position, long fileSize) throws IOException {
+           ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+           while (position < fileSize) {
+               buffer.clear();
+               int read = channel.read(buffer, position);
+               if (read < 0) {
+                   break;
+               }
+               for (int i = 0; i < read; i++) {
+                   if (buffer.get(i) != 0) {
+                       return false;
+                   }
+               }
+               position += read;
+           }
+           return true;
+       }
+
+       int getReplayedCount() {
+           return replayed;
+       }
+
+       long logAdd(Employee emp, RosterType type) {
+           ByteBuffer payload = ByteBuffer.allocate(256);
+           while (true) {
+               try {
+                   payload.put((byte) type.ordinal());
+                   EmployeeRecordCodec.encode(emp, type, payload);
+                   return append(Op.ADD, payload);
+               } catch (BufferOverflowException e) {
+                   payload = ByteBuffer.allocate(payload.capacity() * 2);
+               }
+           }
+       }
+
+       long logRemove(String empId) {
+           return append(Op.REMOVE, withString(empId, 0));
+       }
+
+       long logIncrement(String empId, double incrementPercentage) {
+           return append(Op.INCREMENT, withString(empId, 8).putDouble(incrementPercentage));
+       }
+
+       long logBulkAdjustment(Class<? extends Employee> employeeType, long basicChange, long hraChange, long bonusChange) {
+           return append(Op.BULK_ADJUSTMENT, withString(employeeType.getName(), 24).putLong(basicChange).putLong(hraChange).putLong(bonusChange));
+       }
+
+       long logAdjustSalary(String empId, long basicChange, long hraChange, long bonusChange) {
+           return append(Op.ADJUST_SALARY, withString(empId, 24).putLong(basicChange).putLong(hraChange).putLong(bonusChange));
+       }
+
+       long logExtendContract(String empId, int additionalMonths) {
+           return append(Op.EXTEND_CONTRACT, withString(empId, 4).putInt(additionalMonths));
+       }
+
+       long logUpdateWorkingDays(String empId, int days) {
+           return append(Op.UPDATE_WORKING_DAYS, withString(empId, 4).putInt(days));
+       }
+
+       // Blocks until the record with this sequence number is on disk
+       void awaitDurable(long sequence) {
+           lock.lock();
+           try {
+               while (durableSequence < sequence && failure == null) {
+                   flushed.awaitUninterruptibly();
+               }
+               if (durableSequence < sequence) {
+                   throw new UncheckedIOException("Mutation journal write failed", failure);
+               }
+           } finally {
+               lock.unlock();
+           }
+       }
+
+       // Waits for everything appended so far; returns the last sequence number
+       long sync() {
+           long sequence;
+           lock.lock();
+           try {
+               sequence = lastSequence;
+           } finally {
+               lock.unlock();
+           }
+           awaitDurable(sequence);
+           return sequence;
+       }
+
+       // Empties the file once its records are folded into a snapshot; sequence numbers keep counting.
+       // The caller must keep writers out until this returns.
+       void truncate() throws IOException {
+           sync();
+           lock.lock();
+           try {
+               channel.truncate(0);
+               channel.position(0);
+               channel.force(true);
+           } finally {
+               lock.unlock();
+           }
+       }
+
+       @Override
+       public void close() throws IOException {
+           lock.lock();
+           try {
+               closed = true;
+               pendingWrites.signal();
+           } finally {
+               lock.unlock();
+           }
+           boolean interrupted = false;
+           while (flusher.isAlive()) {
+               try {
+                   flusher.join();
+               } catch (InterruptedException e) {
+                   interrupted = true;
+               }
+           }
+           if (interrupted) {
+               Thread.currentThread().interrupt();
+           }
+           channel.close();
+           if (failure != null) {
+               throw failure;
+           }
+       }
+
+       private long append(Op op, ByteBuffer payload) {
+           payload.flip();
+           lock.lock();
+           try {
+               if (failure != null) {
+                   throw new UncheckedIOException("Mutation journal write failed", failure);
+               }
+               if (closed) {
+                   throw new IllegalStateException("Mutation journal is closed");
+               }
+               long sequence = ++lastSequence;
+               int length = 9 + payload.remaining();
+               if (pending.remaining() < 8 + length) {
+                   pending = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + 8 + length)).put(pending.flip());
+               }
+               int start = pending.position();
+               pending.putInt(length).putInt(0).putLong(sequence).put((byte) op.ordinal()).put(payload);
+               CRC32 crc = new CRC32();
+               crc.update(pending.array(), start + 8, length);
+               pending.putInt(start + 4, (int) crc.getValue());
+               pendingWrites.signal();
+               return sequence;
+           } finally {
+               lock.unlock();
+           }
+       }
+
+       private void runFlusher() {
+           while (true) {
+               long batchEnd;
+               lock.lock();
+               try {
+                   while (pending.position() == 0 && !closed) {
+                       pendingWrites.awaitUninterruptibly();
+                   }
+                   if (pending.position() == 0) {
+                       return; // Closed and drained
+                   }
+                   ByteBuffer batch = pending;
+                   pending = writing;
+                   writing = batch;
+                   batchEnd = lastSequence;
+               } finally {
+                   lock.unlock();
+               }
+               try {
+                   writing.flip();
+                   while (writing.hasRemaining()) {
+                       channel.write(writing);
+                   }
+                   writing.clear();
+                   channel.force(false);
+               } catch (IOException e) {
+                   lock.lock();
+                   try {
+                       failure = e;
+                       flushed.signalAll();
+                   } finally {
+                       lock.unlock();
+                   }
+                   return;
+               }
+               lock.lock();
+               try {
+                   durableSequence = batchEnd;
+                   flushed.signalAll();
+               } finally {
+                   lock.unlock();
+               }
+           }
+       }
+
+       private static void apply(byte opCode, ByteBuffer record, SalarySystem system) throws IOException {
+           try {
+               Op op = Op.values()[opCode];
+               switch (op) {
+                   case ADD: {
+                       RosterType type = RosterType.values()[record.get()];
+                       system.addEmployees(List.of(EmployeeRecordCodec.decode(type, record)));
+                       break;
+                   }
+                   case REMOVE:
+                       system.removeEmployee(getString(record));
+                       break;
+                   case INCREMENT: {
+                       String empId = getString(record);
+                       double incrementPercentage = record.getDouble();
+                       replayRejectable(() -> system.applyIncrement(empId, incrementPercentage));
+                       break;
+                   }
+                   case BULK_ADJUSTMENT:
+                       system.bulkSalaryAdjustmentCents(employeeType(getString(record)), record.getLong(), record.getLong(), record.getLong());
+                       break;
+                   case ADJUST_SALARY: {
+                       String empId = getString(record);
+                       long basicChange = record.getLong();
+                       long hraChange = record.getLong();
+                       long bonusChange = record.getLong();
+                       replayRejectable(() -> system.adjustSalaryCents(empId, basicChange, hraChange, bonusChange));
+                       break;
+                   }
+                   case EXTEND_CONTRACT:
+                       system.extendContract(getString(record), record.getInt());
+                       break;
+                   case UPDATE_WORKING_DAYS:
+                       system.updateWorkingDays(getString(record), record.getInt());
+                       break;
+                   default:
+                       throw new IllegalStateException("Unsupported journal op " + op);
+               }
+           } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException | DateTimeException
+                   | ClassNotFoundException | ClassCastException | IllegalArgumentException e) {
+               throw new IOException("Corrupt mutation journal record", e);
+           }
+       }
+
+       // Increments and salary adjustments are logged even when the live call rejects them, since
+       // setPayCents may already have applied the earlier components. The record is fully decoded
+       // by now, so a rejection here is the original call's, met again with the same partial effect;
+       // anywhere else in apply an IllegalArgumentException means a corrupt record.
+       private static void replayRejectable(Runnable call) {
+           try {
+               call.run();
+           } catch (IllegalArgumentException | ArithmeticException e) {
+               // The original call failed the same way
+           }
+       }
+
+       private static Class<? extends Employee> employeeType(String className) throws ClassNotFoundException {
+           return Class.forName(className, false, MutationJournal.class.getClassLoader()).asSubclass(Employee.class);
+       }
+
+       private static ByteBuffer withString(String value, int extraBytes) {
+           byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+           return ByteBuffer.allocate(4 + bytes.length + extraBytes).putInt(bytes.length).put(bytes);
+       }
+
+       private static String getString(ByteBuffer in) {
+           int length = in.getInt();
+           if (length < 0 || length > in.remaining()) {
+               throw new BufferUnderflowException();
+           }
+           byte[] bytes = new byte[length];
+           in.get(bytes);
+           return new String(bytes, StandardCharsets.UTF_8);
+       }
+   }
@@ -0,0 +1,247 @@
+package CodingMaximaSrp;
+
+   import java.util.ArrayList;
+   import java.util.HashMap;
+   import java.util.HashSet;
+   import java.util.Iterator;
+   import java.util.List;
+   import java.util.Locale;
+   import java.util.Map;
+   import java.util.Set;
+   import java.util.concurrent.ConcurrentHashMap;
+   import java.util.concurrent.ConcurrentSkipListMap;
+
+   // Employees ordered by name, case-insensitively, with exact name and emp_id as tie-breakers.
+   // Exact and prefix lookups and name-ordered paging are skip-list range scans, O(log n + k).
+   // Typo-tolerant lookup goes through trigram postings over the distinct names only; names
+   // repeat heavily across rosters, so that set stays small however many employees share them.
+   // Names are immutable, so only adds and removals update it.
+   class NameIndex {
+       private final ConcurrentSkipListMap<NameKey, Employee> byName = new ConcurrentSkipListMap<>();
+       private final ConcurrentHashMap<String, Integer> employeesPerName = new ConcurrentHashMap<>();
+       private final ConcurrentHashMap<String, Set<String>> namesByTrigram = new ConcurrentHashMap<>();
+
+       // Null name or emp_id sorts before every real one, so (folded, null, null) starts a folded run
+       record NameKey(String folded, String name, String empId) implements Comparable<NameKey> {
+           static NameKey of(Employee emp) {
+               return new NameKey(fold(emp.getName()), emp.getName(), emp.getEmpId());
+           }
+
+           static NameKey lowerBound(String folded) {
+               return new NameKey(folded, null, null);
+           }
+
+           @Override
+           public int compareTo(NameKey other) {
+               int byFolded = folded.compareTo(other.folded);
+               if (byFolded != 0) {
+                   return byFolded;
+               }
+               int byName = compareNullsFirst(name, other.name);
+               return byName != 0 ? byName : compareNullsFirst(empId, other.empId);
+           }
+
+           private static int compareNullsFirst(String a, String b) {
+               if (a == null || b == null) {
+                   return a == null ? (b == null ? 0 : -1) : 1;
+               }
+               return a.compareTo(b);
+           }
+       }
+
+       void add(Employee emp) {
+           NameKey key = NameKey.of(emp);
+           if (byName.put(key, emp) == null) {
+               employeesPerName.compute(key.folded(), (folded, count) -> {
+                   if (count == null) {
+                       for (String trigram : trigrams(folded)) {
+                           namesByTrigram.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(folded);
+                       }
+                       return 1;
+                   }
+                   return count + 1;
+               });
+           }
+       }
+
+       // Removes only this instance, so a replacement with the same emp_id and name survives
+       void remove(Employee emp) {
+           NameKey key = NameKey.of(emp);
+           if (byName.remove(key, emp)) {
+               employeesPerName.compute(key.folded(), (folded, count) -> {
+                   if (count == null || count == 1) {
+                       for (String trigram : trigrams(folded)) {
+                           namesByTrigram.computeIfPresent(trigram, (t, names) -> {
+                               names.remove(folded);
+                               return names.isEmpty() ? null : names;
+                           });
+                       }
+                       return null;
+                   }
+                   return count - 1;
+               });
+           }
+       }
+
+       List<Employee> all() {
+           return new ArrayList<>(byName.values());
+       }
+
+       // Employees after the given one in name order; null starts from the beginning
+       List<Employee> page(Employee after, int pageSize) {
+           requireNonNegative(pageSize);
+           Iterator<Employee> it = (after == null ? byName : byName.tailMap(NameKey.of(after), false)).values().iterator();
+           List<Employee> page = new ArrayList<>(Math.min(pageSize, 1024));
+           while (page.size() < pageSize && it.hasNext()) {
+               page.add(it.next());
+           }
+           return page;
+       }
+
+       List<Employee> exact(String name) {
+           String folded = fold(name);
+           List<Employee> matches = new ArrayList<>();
+           for (Map.Entry<NameKey, Employee> entry : byName.tailMap(NameKey.lowerBound(folded), true).entrySet()) {
+               if (!entry.getKey().folded().equals(folded)) {
+                   break;
+               }
+               matches.add(entry.getValue());
+           }
+           return matches;
+       }
+
+       List<Employee> prefix(String prefix, int limit) {
+           requireNonNegative(limit);
+           String folded = fold(prefix);
+           List<Employee> matches = new ArrayList<>(Math.min(limit, 1024));
+           for (Map.Entry<NameKey, Employee> entry : byName.tailMap(NameKey.lowerBound(folded), true).entrySet()) {
+               if (matches.size() == limit || !entry.getKey().folded().startsWith(folded)) {
+                   break;
+               }
+               matches.add(entry.getValue());
+           }
+           return matches;
+       }
+
+       // Employees whose full name, or any single word of it, is within maxEdits insertions,
+       // deletions or substitutions of the query. Closest names come first, then name order.
+       List<Employee> similar(String name, int maxEdits, int limit) {
+           requireNonNegative(limit);
+           if (maxEdits < 0) {
+               throw new IllegalArgumentException("Edit distance cannot be negative");
+           }
+           String query = fold(name).trim();
+           if (query.isEmpty()) {
+               return new ArrayList<>();
+           }
+           // Each edit destroys at most three trigrams, so a match shares at least this many with the query
+           Set<String> queryTrigrams = new HashSet<>();
+           addTrigrams("  " + query + " ", queryTrigrams);
+           int minShared = queryTrigrams.size() - 3 * maxEdits;
+           Map<String, Integer> shared = new HashMap<>();
+           if (minShared <= 0) {
+               // Too short a query for the bound to exclude anything, so every distinct name is a candidate
+               for (String candidate : employeesPerName.keySet()) {
+                   shared.put(candidate, 0);
+               }
+           }
+           for (String trigram : queryTrigrams) {
+               Set<String> names = namesByTrigram.get(trigram);
+               if (names != null) {
+                   for (String candidate : names) {
+                       shared.merge(candidate, 1, Integer::sum);
+                   }
+               }
+           }
+           List<Map.Entry<String, Integer>> close = new ArrayList<>();
+           for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+               if (candidate.getValue() >= minShared) {
+                   int distance = closestDistance(query, candidate.getKey(), maxEdits);
+                   if (distance <= maxEdits) {
+                       close.add(Map.entry(candidate.getKey(), distance));
+                   }
+               }
+           }
+           close.sort(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+           List<Employee> matches = new ArrayList<>(Math.min(limit, 1024));
+           for (Map.Entry<String, Integer> match : close) {
+               for (Employee emp : exact(match.getKey())) {
+                   if (matches.size() == limit) {
+                       return matches;
+                   }
+                   matches.add(emp);
+               }
+           }
+           return matches;
+       }
+
+       static String fold(String name) {
+           return name.toLowerCase(Locale.ROOT);
+       }
+
+       // Padded so the start and end of the text form trigrams of their own. A name also gets each
+       // word's padded trigrams, so a query matched against one word has all the trigrams it would
+       // share with that word alone and the bound in similar holds for words as for whole names.
+       private static Set<String> trigrams(String text) {
+           Set<String> trigrams = new HashSet<>();
+           addTrigrams("  " + text + " ", trigrams);
+           if (text.indexOf(' ') >= 0) {
+               for (String word : text.split(" +")) {
+                   if (!word.isEmpty()) {
+                       addTrigrams("  " + word + " ", trigrams);
+                   }
+               }
+           }
+           return trigrams;
+       }
+
+       private static void addTrigrams(String padded, Set<String> trigrams) {
+           for (int i = 0; i + 3 <= padded.length(); i++) {
+               trigrams.add(padded.substring(i, i + 3));
+           }
+       }
+
+       private static int closestDistance(String query, String name, int maxEdits) {
+           int best = boundedDistance(query, name, maxEdits);
+           if (best > 0 && name.indexOf(' ') >= 0) {
+               for (String word : name.split(" +")) {
+                   best = Math.min(best, boundedDistance(query, word, Math.min(best, maxEdits)));
+               }
+           }
+           return best;
+       }
+
+       // Levenshtein distance, or maxEdits + 1 as soon as it is known to exceed maxEdits
+       static int boundedDistance(String a, String b, int maxEdits) {
+           if (Math.abs(a.length() - b.length()) > maxEdits) {
+               return maxEdits + 1;
+           }
+           int[] previous = new int[b.length() + 1];
+           int[] current = new int[b.length() + 1];
+           for (int j = 0; j <= b.length(); j++) {
+               previous[j] = j;
+           }
+           for (int i = 1; i <= a.length(); i++) {
+               current[0] = i;
+               int rowMin = current[0];
+               for (int j = 1; j <= b.length(); j++) {
+                   int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                   current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                   rowMin = Math.min(rowMin, current[j]);
+               }
+               if (rowMin > maxEdits) {
+                   return maxEdits + 1;
+               }
+               int[] swap = previous;
+               previous = current;
+               current = swap;
+           }
+           return Math.min(previous[b.length()], maxEdits + 1);
+       }
+
+       private static void requireNonNegative(int count) {
+           if (count < 0) {
+               throw new IllegalArgumentException("Count cannot be negative");
+           }
+       }
+   }
@@ -0,0 +1,282 @@
+package CodingMaximaSrp;
+
+   import java.io.IOException;
+   import java.nio.ByteBuffer;
+   import java.nio.MappedByteBuffer;
+   import java.nio.channels.FileChannel;
+   import java.nio.file.Path;
+   import java.nio.file.StandardOpenOption;
+   import java.util.ArrayList;
+   import java.util.EnumMap;
+   import java.util.HashMap;
+   import java.util.List;
+   import java.util.Map;
+   import java.util.Set;
+   import java.util.concurrent.CompletionException;
+   import java.util.concurrent.ConcurrentHashMap;
+   import java.util.concurrent.ForkJoinPool;
+   import java.util.concurrent.ForkJoinTask;
+   import java.util.concurrent.RecursiveTask;
+   import java.util.concurrent.atomic.LongAdder;
+   import java.util.function.Consumer;
+
+   // Loads roster files on a fork-join pool: the files are read concurrently and each file is split
+   // into newline-aligned byte ranges that RosterRowParser decodes, and that are then added to the
+   // system, in parallel. Quoted fields must not contain line breaks, which holds for the fixed
+   // roster schemas. Files load concurrently, so an emp_id repeated across different files has no
+   // defined winner. loadAll reports a file it cannot read on System.err and leaves it out of the
+   // result; the other files still load.
+   public class ParallelEmployeeLoader {
+       public static final long DEFAULT_CHUNK_SIZE = 8L << 20;
+       private static final long MAX_CHUNK_SIZE = 1L << 30;
+       private static final int SCAN_BUFFER_SIZE = 8192;
+
+       private final ForkJoinPool pool;
+       private final long chunkSize;
+
+       public ParallelEmployeeLoader() {
+           this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+       }
+
+       public ParallelEmployeeLoader(ForkJoinPool pool, long chunkSize) {
+           if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+               throw new IllegalArgumentException("Chunk size must be between 1 byte and 1 GB");
+           }
+           this.pool = pool;
+           this.chunkSize = chunkSize;
+       }
+
+       public Map<RosterType, Integer> loadAll(Path fullTimeFile, Path contractFile, Path dailyWageFile, SalarySystem system)
+               throws IOException {
+           Map<RosterType, Path> rosterFiles = new EnumMap<>(RosterType.class);
+           rosterFiles.put(RosterType.FULL_TIME, fullTimeFile);
+           rosterFiles.put(RosterType.CONTRACT, contractFile);
+           rosterFiles.put(RosterType.DAILY_WAGE, dailyWageFile);
+           return loadAll(rosterFiles, system);
+       }
+
+       public Map<RosterType, Integer> loadAll(Map<RosterType, Path> rosterFiles, SalarySystem system)
+               throws IOException {
+           Map<RosterType, FileChannel> channels = new EnumMap<>(RosterType.class);
+           Map<RosterType, ForkJoinTask<Integer>> tasks = new EnumMap<>(RosterType.class);
+           try {
+               for (Map.Entry<RosterType, Path> entry : rosterFiles.entrySet()) {
+                   try {
+                       channels.put(entry.getKey(), FileChannel.open(entry.getValue(), StandardOpenOption.READ));
+                   } catch (IOException e) {
+                       reportUnreadable(entry.getValue(), e);
+                   }
+               }
+               for (Map.Entry<RosterType, FileChannel> entry : channels.entrySet()) {
+                   String source = rosterFiles.get(entry.getKey()).toString();
+                   tasks.put(entry.getKey(), pool.submit(new FileTask(entry.getValue(), source, entry.getKey(), system)));
+               }
+               Map<RosterType, Integer> loaded = new EnumMap<>(RosterType.class);
+               List<RuntimeException> failures = new ArrayList<>();
+               for (Map.Entry<RosterType, ForkJoinTask<Integer>> entry : tasks.entrySet()) {
+                   try {
+                       loaded.put(entry.getKey(), entry.getValue().join());
+                   } catch (RuntimeException e) {
+                       IOException ioFailure = ioCause(e);
+                       if (ioFailure != null) {
+                           reportUnreadable(rosterFiles.get(entry.getKey()), ioFailure);
+                       } else {
+                           failures.add(e);
+                       }
+                   }
+               }
+               if (!failures.isEmpty()) {
+                   throw failures.get(0);
+               }
+               return loaded;
+           } finally {
+               for (FileChannel channel : channels.values()) {
+                   channel.close();
+               }
+           }
+       }
+
+       public int loadRoster(Path csvFile, RosterType type, SalarySystem system) throws IOException {
+           try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+               return pool.invoke(new FileTask(channel, csvFile.toString(), type, system));
+           } catch (RuntimeException e) {
+               throw rethrow(e);
+           }
+       }
+
+       // Parses every chunk of the file in parallel, then adds the chunks to the system in parallel.
+       // Nothing is added until the whole file has parsed, so a file that fails to read adds no rows.
+       // An emp_id repeated within the file resolves to its last row, as in a sequential load.
+       @SuppressWarnings("serial") // Fork-join tasks are never serialized
+       private class FileTask extends RecursiveTask<Integer> {
+           private final FileChannel channel;
+           private final String source;
+           private final RosterType type;
+           private final SalarySystem system;
+           private final LongAdder rejected = new LongAdder();
+
+           FileTask(FileChannel channel, String source, RosterType type, SalarySystem system) {
+               this.channel = channel;
+               this.source = source;
+               this.type = type;
+               this.system = system;
+           }
+
+           @Override
+           protected Integer compute() {
+               try {
+                   long start = Metrics.startTimer();
+                   long size = channel.size();
+                   long dataStart = nextLineStart(channel, 0, size); // Skip header
+                   List<ChunkTask> chunks = new ArrayList<>();
+                   for (long next = dataStart; next < size; next += chunkSize) {
+                       chunks.add(new ChunkTask(channel, type, next, Math.min(size, next + chunkSize), size, rejected));
+                   }
+                   invokeAll(chunks);
+                   List<List<Employee>> parsed = new ArrayList<>(chunks.size());
+                   int loaded = 0;
+                   for (ChunkTask chunk : chunks) {
+                       List<Employee> employees = chunk.getRawResult();
+                       parsed.add(employees);
+                       loaded += employees.size();
+                   }
+                   forEachChunk(parsed, system::addEmployees);
+                   keepLastRows(parsed);
+                   Metrics.recordLoad(type, source, loaded, rejected.sum(), size, start);
+                   return loaded;
+               } catch (IOException e) {
+                   throw new CompletionException(e);
+               }
+           }
+
+           // Chunks were added concurrently, so for an emp_id repeated in this file any of its rows may
+           // have won. Rows that lost are found with one lookup each; only their emp_ids are then
+           // traced through the file in order, and the last row of each is added again.
+           private void keepLastRows(List<List<Employee>> parsed) {
+               Set<String> superseded = ConcurrentHashMap.newKeySet();
+               forEachChunk(parsed, employees -> {
+                   for (Employee emp : employees) {
+                       if (system.getEmployee(emp.getEmpId()) != emp) {
+                           superseded.add(emp.getEmpId());
+                       }
+                   }
+               });
+               if (superseded.isEmpty()) {
+                   return;
+               }
+               Map<String, Employee> lastRows = new HashMap<>();
+               Map<String, Integer> rowCounts = new HashMap<>();
+               for (List<Employee> employees : parsed) {
+                   for (Employee emp : employees) {
+                       if (superseded.contains(emp.getEmpId())) {
+                           lastRows.put(emp.getEmpId(), emp);
+                           rowCounts.merge(emp.getEmpId(), 1, Integer::sum);
+                       }
+                   }
+               }
+               List<Employee> winners = new ArrayList<>();
+               for (Map.Entry<String, Employee> entry : lastRows.entrySet()) {
+                   // An emp_id found once here lost to another file, which has no defined winner
+                   if (rowCounts.get(entry.getKey()) > 1 && system.getEmployee(entry.getKey()) != entry.getValue()) {
+                       winners.add(entry.getValue());
+                   }
+               }
+               system.addEmployees(winners);
+           }
+
+           private void forEachChunk(List<List<Employee>> parsed, Consumer<List<Employee>> action) {
+               List<ForkJoinTask<?>> tasks = new ArrayList<>(parsed.size());
+               for (List<Employee> employees : parsed) {
+                   tasks.add(ForkJoinTask.adapt(() -> action.accept(employees)));
+               }
+               invokeAll(tasks);
+           }
+       }
+
+       @SuppressWarnings("serial") // Fork-join tasks are never serialized
+       private static class ChunkTask extends RecursiveTask<List<Employee>> {
+           private final FileChannel channel;
+           private final RosterType type;
+           private final long start;
+           private final long end;
+           private final long fileSize;
+           private final LongAdder rejected;
+
+           ChunkTask(FileChannel channel, RosterType type, long start, long end, long fileSize, LongAdder rejected) {
+               this.channel = channel;
+               this.type = type;
+               this.start = start;
+               this.end = end;
+               this.fileSize = fileSize;
+               this.rejected = rejected;
+           }
+
+           @Override
+           protected List<Employee> compute() {
+               try {
+                   return parseRange();
+               } catch (IOException e) {
+                   throw new CompletionException(e);
+               }
+           }
+
+           // Owns every line that starts inside [start, end); the last one may run past end
+           private List<Employee> parseRange() throws IOException {
+               long begin = nextLineStart(channel, start - 1, fileSize);
+               if (begin >= end) {
+                   return List.of();
+               }
+               long stop = nextLineStart(channel, end - 1, fileSize);
+               MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, begin, stop - begin);
+               List<Employee> employees = new ArrayList<>();
+               RosterRowParser parser = new RosterRowParser(type);
+               parser.parse(region, employees::add);
+               rejected.add(parser.getRejectedCount());
+               return employees;
+           }
+       }
+
+       // Returns the offset just past the first '\n' at or after position, or the file size
+       private static long nextLineStart(FileChannel channel, long position, long fileSize) throws IOException {
+           if (position < 0) {
+               return 0;
+           }
+           ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+           long offset = position;
+           while (offset < fileSize) {
+               buffer.clear();
+               int read = channel.read(buffer, offset);
+               if (read <= 0) {
+                   break;
+               }
+               for (int i = 0; i < read; i++) {
+                   if (buffer.get(i) == '\n') {
+                       return offset + i + 1;
+                   }
+               }
+               offset += read;
+           }
+           return fileSize;
+       }
+
+       private static RuntimeException rethrow(RuntimeException failure) throws IOException {
+           IOException ioFailure = ioCause(failure);
+           if (ioFailure != null) {
+               throw ioFailure;
+           }
+           return failure;
+       }
+
+       private static IOException ioCause(Throwable failure) {
+           for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+               if (cause instanceof IOException) {
+                   return (IOException) cause;
+               }
+           }
+           return null;
+       }
+
+       private static void reportUnreadable(Path file, IOException e) {
+           System.err.println("Error reading file " + file + ": " + e.getMessage());
+       }
+   }
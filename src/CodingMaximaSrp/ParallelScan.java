@@ -0,0 +1,106 @@
+package CodingMaximaSrp;
+
+   import java.util.concurrent.ForkJoinPool;
+   import java.util.concurrent.RecursiveTask;
+   import java.util.function.BinaryOperator;
+   import java.util.function.Supplier;
+
+   // Runs a scan over an index range on a fork-join pool once the range reaches a size threshold,
+   // and inline below it. Each leaf task fills its own accumulator and partial results are merged
+   // pairwise in index order, so for an associative merge the result does not depend on the split.
+   final class ParallelScan {
+       private static final int MIN_CHUNK_SIZE = 1_024;
+       private static final int CHUNKS_PER_THREAD = 4;
+
+       private final ForkJoinPool pool;
+       private final int threshold;
+
+       @FunctionalInterface
+       interface RangeScan<A> {
+           void scan(A accumulator, int from, int to);
+       }
+
+       ParallelScan(ForkJoinPool pool, int threshold) {
+           if (pool == null) {
+               throw new IllegalArgumentException("Fork-join pool cannot be null");
+           }
+           if (threshold < 0) {
+               throw new IllegalArgumentException("Parallel threshold cannot be negative");
+           }
+           this.pool = pool;
+           this.threshold = threshold;
+       }
+
+       boolean isParallel(int size) {
+           return size >= threshold && size > 1;
+       }
+
+       <A> A reduce(int size, Supplier<A> newAccumulator, RangeScan<A> scan, BinaryOperator<A> merge) {
+           return reduce(size, size, MIN_CHUNK_SIZE, newAccumulator, scan, merge);
+       }
+
+       // workSize decides between inline and parallel when it differs from the range, e.g. a batch of
+       // ids spread over a few stripes; ranges are never split below minChunkSize
+       <A> A reduce(int size, int workSize, int minChunkSize, Supplier<A> newAccumulator, RangeScan<A> scan, BinaryOperator<A> merge) {
+           if (!isParallel(workSize)) {
+               A accumulator = newAccumulator.get();
+               scan.scan(accumulator, 0, size);
+               return accumulator;
+           }
+           int chunkSize = Math.max(minChunkSize, size / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+           try {
+               return pool.invoke(new ScanTask<>(0, size, chunkSize, newAccumulator, scan, merge));
+           } catch (RuntimeException e) {
+               throw original(e);
+           }
+       }
+
+       void forEach(int size, RangeScan<Void> scan) {
+           reduce(size, () -> null, scan, (left, right) -> null);
+       }
+
+       // A failure in a worker reaches the caller as a copy wrapping the original, once per thread it
+       // was joined across; hand back the original so callers see the same exception and message as
+       // on the sequential path
+       private static RuntimeException original(RuntimeException rethrown) {
+           RuntimeException original = rethrown;
+           while (original.getCause() != null && original.getCause().getClass() == original.getClass()) {
+               original = (RuntimeException) original.getCause();
+           }
+           return original;
+       }
+
+       @SuppressWarnings("serial") // Fork-join tasks are never serialized
+       private static class ScanTask<A> extends RecursiveTask<A> {
+           private final int from;
+           private final int to;
+           private final int chunkSize;
+           private final Supplier<A> newAccumulator;
+           private final RangeScan<A> scan;
+           private final BinaryOperator<A> merge;
+
+           ScanTask(int from, int to, int chunkSize, Supplier<A> newAccumulator, RangeScan<A> scan, BinaryOperator<A> merge) {
+               this.from = from;
+               this.to = to;
+               this.chunkSize = chunkSize;
+               this.newAccumulator = newAccumulator;
+               this.scan = scan;
+               this.merge = merge;
+           }
+
+           @Override
+           protected A compute() {
+               if (to - from <= chunkSize) {
+                   A accumulator = newAccumulator.get();
+                   scan.scan(accumulator, from, to);
+                   return accumulator;
+               }
+               int mid = (from + to) >>> 1;
+               ScanTask<A> left = new ScanTask<>(from, mid, chunkSize, newAccumulator, scan, merge);
+               ScanTask<A> right = new ScanTask<>(mid, to, chunkSize, newAccumulator, scan, merge);
+               right.fork();
+               A leftResult = left.compute();
+               return merge.apply(leftResult, right.join());
+           }
+       }
+   }
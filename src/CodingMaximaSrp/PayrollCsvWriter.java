@@ -0,0 +1,233 @@
+package CodingMaximaSrp;
+
+   import java.io.Closeable;
+   import java.io.IOException;
+   import java.io.UncheckedIOException;
+   import java.nio.ByteBuffer;
+   import java.nio.channels.Channels;
+   import java.nio.channels.FileChannel;
+   import java.nio.charset.StandardCharsets;
+   import java.nio.file.Files;
+   import java.nio.file.Path;
+   import java.nio.file.StandardOpenOption;
+   import java.time.LocalDate;
+   import java.util.HashMap;
+   import java.util.Map;
+   import java.util.zip.GZIPOutputStream;
+
+   // Writes payroll rows as CSV into a temp file next to the target, encoding each row by hand into
+   // one reusable buffer. commit() renames the finished file over the target; closing without a
+   // commit deletes it, so readers never see a partial export. Rows arrive through the sink
+   // interface, which cannot throw checked exceptions, so write failures surface as
+   // UncheckedIOException. Not thread-safe.
+   public class PayrollCsvWriter implements PayrollSink, Closeable {
+       public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+       private static final byte[] HEADER = "ID,Name,Type,Salary,Hire Date\n".getBytes(StandardCharsets.US_ASCII);
+       private static final int MAX_ROW_PREFIX = 64; // Room for a salary, a date and separators
+
+       private final Path target;
+       private final Path tempFile;
+       private final FileChannel channel;
+       private final GZIPOutputStream gzip;
+       private final ByteBuffer buffer;
+       private final Map<Class<? extends Employee>, byte[]> typeNames = new HashMap<>();
+       private long bytesWritten; // Before compression
+       private boolean committed;
+       private boolean closed;
+
+       private PayrollCsvWriter(Path target, Path tempFile, FileChannel channel, boolean gzip, int bufferSize) throws IOException {
+           this.target = target;
+           this.tempFile = tempFile;
+           this.channel = channel;
+           this.gzip = gzip ? new GZIPOutputStream(Channels.newOutputStream(channel), bufferSize) : null;
+           this.buffer = ByteBuffer.allocate(Math.max(bufferSize, MAX_ROW_PREFIX * 4));
+           buffer.put(HEADER);
+       }
+
+       public static PayrollCsvWriter open(Path target, boolean gzip) throws IOException {
+           return open(target, gzip, DEFAULT_BUFFER_SIZE);
+       }
+
+       public static PayrollCsvWriter open(Path target, boolean gzip, int bufferSize) throws IOException {
+           Path tempFile = AtomicFiles.createTempSibling(target);
+           FileChannel channel = null;
+           try {
+               channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+               return new PayrollCsvWriter(target, tempFile, channel, gzip, bufferSize);
+           } catch (IOException | RuntimeException e) {
+               if (channel != null) {
+                   channel.close();
+               }
+               Files.deleteIfExists(tempFile);
+               throw e;
+           }
+       }
+
+       @Override
+       public void accept(String empId, String name, Class<? extends Employee> type, long salaryCents, LocalDate hireDate) {
+           try {
+               writeField(empId);
+               put((byte) ',');
+               writeField(name);
+               put((byte) ',');
+               writeBytes(typeNames.computeIfAbsent(type, t -> encode(t.getSimpleName())));
+               ensureRoom(MAX_ROW_PREFIX);
+               buffer.put((byte) ',');
+               writeCents(salaryCents);
+               buffer.put((byte) ',');
+               writeDate(hireDate);
+               buffer.put((byte) '\n');
+           } catch (IOException e) {
+               throw new UncheckedIOException(e);
+           }
+       }
+
+       // Flushes everything to disk and atomically replaces the target with the new file
+       public void commit() throws IOException {
+           if (closed) {
+               throw new IllegalStateException("Writer is already closed");
+           }
+           flush();
+           if (gzip != null) {
+               gzip.finish(); // Writes the trailer but leaves the channel open to be forced
+               gzip.flush();
+           }
+           channel.force(true);
+           closed = true;
+           if (gzip != null) {
+               gzip.close(); // Releases the deflater; also closes the channel
+           } else {
+               channel.close();
+           }
+           AtomicFiles.moveIntoPlace(tempFile, target);
+           committed = true;
+       }
+
+       // Uncompressed size of everything flushed so far
+       long getBytesWritten() {
+           return bytesWritten;
+       }
+
+       @Override
+       public void close() throws IOException {
+           if (committed) {
+               return;
+           }
+           try {
+               if (!closed) {
+                   closed = true;
+                   if (gzip != null) {
+                       gzip.close(); // Releases the deflater; the output is discarded anyway
+                   } else {
+                       channel.close();
+                   }
+               }
+           } finally {
+               Files.deleteIfExists(tempFile);
+           }
+       }
+
+       // Names and ids are quoted only when they contain a separator, quote or line break
+       private void writeField(String value) throws IOException {
+           boolean needsQuotes = false;
+           boolean ascii = true;
+           for (int i = 0; i < value.length(); i++) {
+               char c = value.charAt(i);
+               if (c == ',' || c == '"' || c == '\n' || c == '\r') needsQuotes = true;
+               if (c >= 0x80) ascii = false;
+           }
+           if (needsQuotes) {
+               writeBytes(encode("\"" + value.replace("\"", "\"\"") + "\""));
+           } else if (!ascii) {
+               writeBytes(encode(value));
+           } else {
+               ensureRoom(value.length());
+               for (int i = 0; i < value.length(); i++) {
+                   buffer.put((byte) value.charAt(i));
+               }
+           }
+       }
+
+       // Same text as String.format("%.2f", cents / 100.0) for every amount a double holds to the cent
+       private void writeCents(long cents) {
+           long units = cents / Money.CENTS_PER_UNIT;
+           int fraction = (int) (cents % Money.CENTS_PER_UNIT);
+           if (cents < 0) {
+               buffer.put((byte) '-');
+               units = -units;
+               fraction = -fraction;
+           }
+           writeDigits(units);
+           buffer.put((byte) '.');
+           buffer.put((byte) ('0' + fraction / 10));
+           buffer.put((byte) ('0' + fraction % 10));
+       }
+
+       private void writeDigits(long value) {
+           if (value >= 10) {
+               writeDigits(value / 10);
+           }
+           buffer.put((byte) ('0' + (int) (value % 10)));
+       }
+
+       private void writeDate(LocalDate date) {
+           int year = date.getYear();
+           if (year < 0 || year > 9999) {
+               for (byte b : encode(date.toString())) buffer.put(b); // Signed years; always short
+               return;
+           }
+           buffer.put((byte) ('0' + year / 1000));
+           buffer.put((byte) ('0' + year / 100 % 10));
+           buffer.put((byte) ('0' + year / 10 % 10));
+           buffer.put((byte) ('0' + year % 10));
+           buffer.put((byte) '-');
+           buffer.put((byte) ('0' + date.getMonthValue() / 10));
+           buffer.put((byte) ('0' + date.getMonthValue() % 10));
+           buffer.put((byte) '-');
+           buffer.put((byte) ('0' + date.getDayOfMonth() / 10));
+           buffer.put((byte) ('0' + date.getDayOfMonth() % 10));
+       }
+
+       private void writeBytes(byte[] bytes) throws IOException {
+           if (bytes.length > buffer.capacity()) {
+               flush();
+               write(ByteBuffer.wrap(bytes));
+               return;
+           }
+           ensureRoom(bytes.length);
+           buffer.put(bytes);
+       }
+
+       private void put(byte b) throws IOException {
+           ensureRoom(1);
+           buffer.put(b);
+       }
+
+       private void ensureRoom(int bytes) throws IOException {
+           if (buffer.remaining() < bytes) {
+               flush();
+           }
+       }
+
+       private void flush() throws IOException {
+           buffer.flip();
+           write(buffer);
+           buffer.clear();
+       }
+
+       private void write(ByteBuffer bytes) throws IOException {
+           bytesWritten += bytes.remaining();
+           if (gzip != null) {
+               gzip.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+               bytes.position(bytes.limit());
+               return;
+           }
+           while (bytes.hasRemaining()) {
+               channel.write(bytes);
+           }
+       }
+
+       private static byte[] encode(String value) {
+           return value.getBytes(StandardCharsets.UTF_8);
+       }
+   }
@@ -0,0 +1,76 @@
+package CodingMaximaSrp;
+
+   import java.time.LocalDate;
+   import java.util.ArrayList;
+   import java.util.List;
+   import java.util.Random;
+
+   // Net salaries for a block of ColumnarEmployeeStore rows that all have one type, with the formulas of
+   // each subclass's salaryCents. A run writes each row's salary, marks the rows whose salary is in range
+   // and returns the block's exact total; results match calculateSalaryCents row for row.
+   // SalarySystem does not use these: its totals are running per-type aggregates over cached
+   // salaries, kept current on each write, so it never recomputes payroll from the pay fields.
+   interface PayrollKernel {
+       String VECTOR_MODULE = "jdk.incubator.vector";
+
+       // rate is the PF deduction for full-time rows and the daily rate for daily-wage rows;
+       // units is the working days for daily-wage rows
+       record Columns(long[] basicPay, long[] hra, long[] bonus, long[] rate, int[] units) {
+       }
+
+       // salaries and inRange may each be null when not wanted; bit (row & 63) of inRange[row >>> 6]
+       // is set for rows whose salary lies in [minCents, maxCents]
+       record Output(long[] salaries, long[] inRange, long minCents, long maxCents) {
+           long accept(int row, long salaryCents) {
+               if (salaries != null) {
+                   salaries[row] = salaryCents;
+               }
+               if (inRange != null && salaryCents >= minCents && salaryCents <= maxCents) {
+                   inRange[row >>> 6] |= 1L << row;
+               }
+               return salaryCents;
+           }
+       }
+
+       long fullTime(Columns in, int from, int to, Output out);
+
+       long contract(Columns in, int from, int to, Output out);
+
+       long dailyWage(Columns in, int from, int to, Output out);
+
+       // The vector kernel when the JVM was started with the incubator module and it reproduces
+       // calculateSalaryCents on a sample roster, else the scalar loop
+       static PayrollKernel select() {
+           if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+               try {
+                   PayrollKernel vector = (PayrollKernel) Class.forName("CodingMaximaSrp.VectorPayrollKernel")
+                       .getDeclaredConstructor().newInstance();
+                   if (matchesEmployees(vector)) {
+                       return vector;
+                   }
+               } catch (ReflectiveOperationException | LinkageError e) {
+                   // Falls through to the scalar kernel
+               }
+           }
+           return ScalarPayrollKernel.INSTANCE;
+       }
+
+       // Mixed types in short runs, so block edges and vector tails are exercised as well
+       private static boolean matchesEmployees(PayrollKernel kernel) {
+           Random random = new Random(42);
+           List<Employee> sample = new ArrayList<>();
+           LocalDate hireDate = LocalDate.of(2020, 1, 1);
+           for (int i = 0; i < 300; i++) {
+               long pay = i % 50 == 0 ? random.nextLong(1L << 45) : random.nextLong(50_000_000);
+               switch (random.nextInt(3)) {
+                   case 0 -> sample.add(FullTimeEmployee.ofCents("s" + i, "Sample", hireDate, pay, random.nextLong(pay / 2 + 1), random.nextLong(pay + 1)));
+                   case 1 -> sample.add(ContractEmployee.ofCents("s" + i, "Sample", hireDate, pay, random.nextInt(36)));
+                   default -> sample.add(DailyWageEmployee.ofCents("s" + i, "Sample", hireDate, pay / 30, random.nextInt(31)));
+               }
+           }
+           sample.add(new FullTimeEmployee("s-pf", "Sample", hireDate, 0, 0, 0, 1_000_000)); // Negative net pay
+           ColumnarEmployeeStore store = new ColumnarEmployeeStore(sample.size(), kernel);
+           store.addEmployees(sample);
+           return store.findPayrollMismatch() == null;
+       }
+   }
@@ -0,0 +1,182 @@
+package CodingMaximaSrp;
+
+   import java.time.YearMonth;
+   import java.util.HashMap;
+   import java.util.Map;
+
+   // Month-by-month payroll over a horizon of up to 60 months, from one consistent parallel scan of
+   // the roster. Each employee is paid from their hire month on; a contract employee until
+   // contractDurationMonths after the hire month; a full-time employee gets the annual increment on
+   // each hire anniversary after the first projected month, compounding as applyAnnualIncrement
+   // would; daily-wage pay follows the working-days schedule when one is given. The first projected
+   // month is paid at current pay. Figures are kept per concrete class as {headcount, salary cents}
+   // per month in one long[], so memory does not grow with the roster.
+   public class PayrollProjection {
+       public static final int MAX_MONTHS = 60;
+
+       private final YearMonth startMonth;
+       private final int months;
+       private final Map<Class<? extends Employee>, long[]> byClass;
+
+       private PayrollProjection(YearMonth startMonth, int months, Map<Class<? extends Employee>, long[]> byClass) {
+           this.startMonth = startMonth;
+           this.months = months;
+           this.byClass = byClass;
+       }
+
+       // workingDaysByMonth holds one entry per projected month, or is null to keep each daily-wage
+       // employee's current working days throughout
+       static PayrollProjection project(SalarySystem system, YearMonth startMonth, int months,
+                                        double annualIncrementPercentage, int[] workingDaysByMonth) {
+           if (months < 1 || months > MAX_MONTHS) {
+               throw new IllegalArgumentException("Projection months must be between 1 and " + MAX_MONTHS);
+           }
+           if (!(annualIncrementPercentage >= 0) || Double.isInfinite(annualIncrementPercentage)) {
+               throw new IllegalArgumentException("Annual increment cannot be negative");
+           }
+           if (workingDaysByMonth != null) {
+               if (workingDaysByMonth.length != months) {
+                   throw new IllegalArgumentException("Working days schedule must have one entry per projected month");
+               }
+               for (int days : workingDaysByMonth) {
+                   if (days < 0) {
+                       throw new IllegalArgumentException("Working days cannot be negative");
+                   }
+               }
+           }
+           int startIndex = monthIndex(startMonth);
+           Map<Class<? extends Employee>, long[]> totals = system.scanEmployees(HashMap::new, (byClass, emp) -> {
+               long[] figures = byClass.computeIfAbsent(emp.getClass(), type -> new long[2 * months]);
+               projectEmployee(emp, startIndex, months, annualIncrementPercentage, workingDaysByMonth, figures);
+           }, PayrollProjection::merge);
+           return new PayrollProjection(startMonth, months, totals);
+       }
+
+       private static void projectEmployee(Employee emp, int startIndex, int months, double annualIncrementPercentage,
+                                           int[] workingDaysByMonth, long[] figures) {
+           int hireIndex = monthIndex(YearMonth.from(emp.getHireDate()));
+           int first = Math.max(0, hireIndex - startIndex);
+           int end = months;
+           if (emp instanceof ContractEmployee) {
+               end = Math.min(months, hireIndex + ((ContractEmployee) emp).getContractDurationMonths() - startIndex);
+           }
+           if (first >= end) {
+               return;
+           }
+           Employee.PaySnapshot pay = emp.paySnapshot();
+           if (emp instanceof FullTimeEmployee) {
+               long pfDeductionCents = ((FullTimeEmployee) emp).getPfDeductionCents();
+               long basic = pay.basicPayCents();
+               long hra = pay.hraCents();
+               long salary = pay.salaryCents();
+               for (int month = first; month < end; month++) {
+                   int monthsEmployed = startIndex + month - hireIndex;
+                   if (month > 0 && monthsEmployed > 0 && monthsEmployed % 12 == 0) {
+                       long increment = FullTimeEmployee.incrementCents(basic, annualIncrementPercentage);
+                       basic = Money.add(basic, increment);
+                       hra = Money.add(hra, FullTimeEmployee.incrementHraCents(increment));
+                       salary = FullTimeEmployee.salaryCents(basic, hra, pay.bonusCents(), pfDeductionCents);
+                   }
+                   record(figures, month, salary);
+               }
+           } else if (emp instanceof DailyWageEmployee && workingDaysByMonth != null) {
+               long dailyRateCents = ((DailyWageEmployee) emp).getDailyRateCents();
+               for (int month = first; month < end; month++) {
+                   int days = workingDaysByMonth[month];
+                   record(figures, month, DailyWageEmployee.salaryCents(dailyRateCents, days, DailyWageEmployee.bonusCents(dailyRateCents, days)));
+               }
+           } else {
+               for (int month = first; month < end; month++) {
+                   record(figures, month, pay.salaryCents());
+               }
+           }
+       }
+
+       private static void record(long[] figures, int month, long salaryCents) {
+           figures[2 * month]++;
+           figures[2 * month + 1] = Money.add(figures[2 * month + 1], salaryCents);
+       }
+
+       private static Map<Class<? extends Employee>, long[]> merge(Map<Class<? extends Employee>, long[]> left,
+                                                                  Map<Class<? extends Employee>, long[]> right) {
+           right.forEach((type, figures) -> left.merge(type, figures, (mine, theirs) -> {
+               for (int i = 0; i < mine.length; i += 2) {
+                   mine[i] += theirs[i];
+                   mine[i + 1] = Money.add(mine[i + 1], theirs[i + 1]);
+               }
+               return mine;
+           }));
+           return left;
+       }
+
+       private static int monthIndex(YearMonth month) {
+           return Math.toIntExact(month.getYear() * 12L + month.getMonthValue() - 1);
+       }
+
+       public YearMonth getStartMonth() {
+           return startMonth;
+       }
+
+       public int getMonthCount() {
+           return months;
+       }
+
+       public YearMonth getMonth(int month) {
+           return startMonth.plusMonths(checkMonth(month));
+       }
+
+       public int getHeadcount(int month) {
+           return getHeadcount(month, Employee.class);
+       }
+
+       // Counts subclasses towards their parent types, as PayrollSummary does
+       public int getHeadcount(int month, Class<? extends Employee> employeeType) {
+           return (int) sum(employeeType, 2 * checkMonth(month));
+       }
+
+       public long getTotalSalaryCents(int month) {
+           return getTotalSalaryCents(month, Employee.class);
+       }
+
+       public long getTotalSalaryCents(int month, Class<? extends Employee> employeeType) {
+           return sum(employeeType, 2 * checkMonth(month) + 1);
+       }
+
+       public double getTotalSalary(int month) {
+           return Money.toDouble(getTotalSalaryCents(month));
+       }
+
+       // Over the whole horizon
+       public long getTotalSalaryCents() {
+           return getTotalSalaryCents(Employee.class);
+       }
+
+       public long getTotalSalaryCents(Class<? extends Employee> employeeType) {
+           long total = 0;
+           for (int month = 0; month < months; month++) {
+               total = Money.add(total, getTotalSalaryCents(month, employeeType));
+           }
+           return total;
+       }
+
+       public double getTotalSalary() {
+           return Money.toDouble(getTotalSalaryCents());
+       }
+
+       private long sum(Class<? extends Employee> employeeType, int slot) {
+           long total = 0;
+           for (Map.Entry<Class<? extends Employee>, long[]> entry : byClass.entrySet()) {
+               if (employeeType.isAssignableFrom(entry.getKey())) {
+                   total = Money.add(total, entry.getValue()[slot]);
+               }
+           }
+           return total;
+       }
+
+       private int checkMonth(int month) {
+           if (month < 0 || month >= months) {
+               throw new IllegalArgumentException("Month " + month + " is outside the projection");
+           }
+           return month;
+       }
+   }
@@ -0,0 +1,375 @@
+package CodingMaximaSrp;
+
+   import java.util.ArrayList;
+   import java.util.HashMap;
+   import java.util.List;
+   import java.util.Map;
+
+   import CodingMaximaSrp.MetricsRegistry.Operation;
+
+   // A what-if round of pay changes over a SalarySystem, kept as an ordered list of steps on top of
+   // the live roster rather than a copy of it. Each step is checked when added, against the roster as
+   // the earlier steps would leave it, and is refused with the live call's message or exception.
+   // evaluate folds the steps into each employee's current pay during one scan, so any number of
+   // scenarios can be evaluated at once, from any threads, with nothing copied or changed. commit
+   // replays the steps through the system's own writers, journal included; discard drops them. Steps are added
+   // from one thread at a time.
+   public class PayrollScenario {
+       private static final int BASIC = 0;
+       private static final int HRA = 1;
+       private static final int BONUS = 2;
+       private static final int WORKING_DAYS = 3;
+
+       private static final int[] NO_STEPS = new int[0];
+
+       private enum State { OPEN, COMMITTED, DISCARDED }
+
+       private final SalarySystem system;
+       private volatile List<Step> steps = List.of(); // Replaced, never changed, so evaluate needs no lock
+       private volatile State state = State.OPEN;
+
+       // One hypothetical change. pay is {basic, hra, bonus, working days}; apply throws what the live
+       // call would throw for a change it rejects
+       private interface Step {
+           // Null for a step over a whole employee type
+           String empId();
+
+           // The employee's class when the step was added, or the type a bulk step covers
+           Class<? extends Employee> employeeType();
+
+           boolean appliesTo(Employee emp);
+
+           void apply(Employee emp, long[] pay);
+
+           // Applies and journals the step without waiting for the flush; returns the journal sequence
+           long replay(SalarySystem system);
+       }
+
+       private record Increment(String empId, Class<? extends Employee> employeeType, double incrementPercentage) implements Step {
+           @Override
+           public boolean appliesTo(Employee emp) {
+               return emp instanceof FullTimeEmployee && emp.getEmpId().equals(empId);
+           }
+
+           @Override
+           public void apply(Employee emp, long[] pay) {
+               long increment = FullTimeEmployee.incrementCents(pay[BASIC], incrementPercentage);
+               adjust(emp, pay, increment, FullTimeEmployee.incrementHraCents(increment), 0);
+           }
+
+           @Override
+           public long replay(SalarySystem system) {
+               return system.applyIncrementJournaled(empId, incrementPercentage).sequence();
+           }
+       }
+
+       private record Adjustment(String empId, Class<? extends Employee> employeeType, long basicChange, long hraChange, long bonusChange) implements Step {
+           @Override
+           public boolean appliesTo(Employee emp) {
+               return emp.getEmpId().equals(empId);
+           }
+
+           @Override
+           public void apply(Employee emp, long[] pay) {
+               adjust(emp, pay, basicChange, hraChange, bonusChange);
+           }
+
+           @Override
+           public long replay(SalarySystem system) {
+               return system.adjustSalaryJournaled(empId, basicChange, hraChange, bonusChange).sequence();
+           }
+       }
+
+       private record WorkingDays(String empId, Class<? extends Employee> employeeType, int days) implements Step {
+           @Override
+           public boolean appliesTo(Employee emp) {
+               return emp instanceof DailyWageEmployee && emp.getEmpId().equals(empId);
+           }
+
+           @Override
+           public void apply(Employee emp, long[] pay) {
+               long dailyRateCents = ((DailyWageEmployee) emp).getDailyRateCents();
+               pay[BASIC] = Money.times(dailyRateCents, days);
+               pay[BONUS] = DailyWageEmployee.bonusCents(dailyRateCents, days);
+               pay[WORKING_DAYS] = days;
+           }
+
+           @Override
+           public long replay(SalarySystem system) {
+               return system.updateWorkingDaysJournaled(empId, days).sequence();
+           }
+       }
+
+       private record BulkAdjustment(Class<? extends Employee> employeeType, long basicChange, long hraChange, long bonusChange) implements Step {
+           @Override
+           public String empId() {
+               return null;
+           }
+
+           @Override
+           public boolean appliesTo(Employee emp) {
+               return employeeType.isInstance(emp);
+           }
+
+           @Override
+           public void apply(Employee emp, long[] pay) {
+               adjust(emp, pay, basicChange, hraChange, bonusChange);
+           }
+
+           @Override
+           public long replay(SalarySystem system) {
+               return system.bulkSalaryAdjustmentJournaled(employeeType, basicChange, hraChange, bonusChange);
+           }
+       }
+
+       PayrollScenario(SalarySystem system) {
+           this.system = system;
+       }
+
+       public synchronized String applyIncrement(String empId, double incrementPercentage) {
+           requireOpen();
+           Employee employee = system.getEmployee(empId);
+           if (!(employee instanceof FullTimeEmployee)) {
+               return "Increment only applicable to full-time employees";
+           }
+           addPersonal(employee, new Increment(empId, employee.getClass(), incrementPercentage));
+           return "Increment applied to " + employee.getName();
+       }
+
+       public synchronized String adjustSalary(String empId, double basicChange, double hraChange, double bonusChange) {
+           requireOpen();
+           Employee employee = system.getEmployee(empId);
+           if (employee == null) {
+               return "Employee " + empId + " not found";
+           }
+           addPersonal(employee, new Adjustment(empId, employee.getClass(), Money.ofDouble(basicChange), Money.ofDouble(hraChange), Money.ofDouble(bonusChange)));
+           return "Salary adjusted for " + employee.getName();
+       }
+
+       public synchronized String updateWorkingDays(String empId, int days) {
+           requireOpen();
+           Employee employee = system.getEmployee(empId);
+           if (!(employee instanceof DailyWageEmployee)) {
+               return "Working days only applicable to daily wage employees";
+           }
+           if (days < 0) {
+               throw new IllegalArgumentException("Working days cannot be negative");
+           }
+           addPersonal(employee, new WorkingDays(empId, employee.getClass(), days));
+           return "Working days updated for " + employee.getName();
+       }
+
+       // All or nothing, like the live call: refused if any matching employee would be left with negative pay
+       public synchronized void bulkSalaryAdjustment(Class<? extends Employee> employeeType, double basicChange, double hraChange, double bonusChange) {
+           requireOpen();
+           Step step = new BulkAdjustment(employeeType, Money.ofDouble(basicChange), Money.ofDouble(hraChange), Money.ofDouble(bonusChange));
+           List<Step> extended = append(steps, step);
+           Plan plan = new Plan(extended);
+           system.scanEmployees(() -> new long[4], (pay, emp) -> {
+               if (step.appliesTo(emp)) {
+                   plan.fold(emp, emp.paySnapshot(), pay);
+               }
+           }, (left, right) -> left);
+           steps = extended;
+       }
+
+       public int getStepCount() {
+           return steps.size();
+       }
+
+       // Payroll as the live roster stands now and as it would stand after the steps
+       public ScenarioResult evaluate() {
+           long start = Metrics.startTimer();
+           try {
+               requireOpen();
+               return evaluate(new Plan(steps));
+           } finally {
+               Metrics.recordOperation(Operation.EVALUATE_SCENARIO, start);
+           }
+       }
+
+       // Applies the steps to the live system in order, with its other writers held off throughout.
+       // Every step is checked against the roster as it is now before the first one is applied, so a
+       // step that no longer applies, e.g. after a live pay cut or for an employee since removed or
+       // replaced by one of another type, leaves the system untouched. The steps' journal records share
+       // one flush, waited for once the other writers are let back in.
+       public synchronized ScenarioResult commit() {
+           long start = Metrics.startTimer();
+           try {
+               requireOpen();
+               List<Step> committing = steps;
+               long[] lastSequence = new long[1];
+               ScenarioResult result;
+               try {
+                   result = system.exclusively(() -> {
+                       requireOnRoster(committing);
+                       ScenarioResult checked = evaluate(new Plan(committing));
+                       for (Step step : committing) {
+                           lastSequence[0] = Math.max(lastSequence[0], step.replay(system));
+                       }
+                       return checked;
+                   });
+               } finally {
+                   system.awaitDurable(lastSequence[0]);
+               }
+               state = State.COMMITTED;
+               steps = List.of();
+               return result;
+           } finally {
+               Metrics.recordOperation(Operation.COMMIT_SCENARIO, start);
+           }
+       }
+
+       public synchronized void discard() {
+           requireOpen();
+           state = State.DISCARDED;
+           steps = List.of();
+       }
+
+       private void addPersonal(Employee employee, Step step) {
+           List<Step> extended = append(steps, step);
+           new Plan(extended).fold(employee, employee.paySnapshot(), new long[4]);
+           steps = extended;
+       }
+
+       private void requireOnRoster(List<Step> committing) {
+           for (Step step : committing) {
+               if (step.empId() != null) {
+                   Employee employee = system.getEmployee(step.empId());
+                   if (employee == null || employee.getClass() != step.employeeType()) {
+                       throw new IllegalStateException("Scenario no longer applies to the roster: employee "
+                           + step.empId() + (employee == null ? " not found" : " is no longer a " + step.employeeType().getSimpleName()));
+                   }
+               }
+           }
+       }
+
+       private ScenarioResult evaluate(Plan plan) {
+           try {
+               Tally tally = system.scanEmployees(Tally::new, (t, emp) -> t.add(emp, plan), Tally::merge);
+               return new ScenarioResult(tally.before, tally.after, tally.changed);
+           } catch (IllegalArgumentException | ArithmeticException e) {
+               throw new IllegalStateException("Scenario no longer applies to the roster: " + e.getMessage(), e);
+           }
+       }
+
+       private void requireOpen() {
+           if (state != State.OPEN) {
+               throw new IllegalStateException("Scenario already " + state.name().toLowerCase());
+           }
+       }
+
+       private static List<Step> append(List<Step> steps, Step step) {
+           List<Step> extended = new ArrayList<>(steps.size() + 1);
+           extended.addAll(steps);
+           extended.add(step);
+           return List.copyOf(extended);
+       }
+
+       // Same order and messages as Employee.setPayCents; a daily-wage employee's basic pay stays
+       // the rate times the days worked
+       private static void adjust(Employee emp, long[] pay, long basicChange, long hraChange, long bonusChange) {
+           long basic = Money.add(pay[BASIC], basicChange);
+           if (emp instanceof DailyWageEmployee) {
+               basic = pay[BASIC];
+           }
+           long hra = Money.add(pay[HRA], hraChange);
+           long bonus = Money.add(pay[BONUS], bonusChange);
+           if (basic < 0) {
+               throw new IllegalArgumentException("Basic pay cannot be negative");
+           }
+           if (hra < 0) {
+               throw new IllegalArgumentException("HRA cannot be negative");
+           }
+           if (bonus < 0) {
+               throw new IllegalArgumentException("Bonus cannot be negative");
+           }
+           pay[BASIC] = basic;
+           pay[HRA] = hra;
+           pay[BONUS] = bonus;
+       }
+
+       // The steps indexed for a roster scan: per-employee steps by emp_id, bulk steps in one list,
+       // each with its position so an employee's steps are folded in the order they were added
+       private static final class Plan {
+           private final List<Step> steps;
+           private final Map<String, int[]> personal = new HashMap<>();
+           private final int[] bulk;
+
+           Plan(List<Step> steps) {
+               this.steps = steps;
+               Map<String, List<Integer>> byEmpId = new HashMap<>();
+               List<Integer> bulkPositions = new ArrayList<>();
+               for (int position = 0; position < steps.size(); position++) {
+                   String empId = steps.get(position).empId();
+                   if (empId == null) {
+                       bulkPositions.add(position);
+                   } else {
+                       byEmpId.computeIfAbsent(empId, id -> new ArrayList<>()).add(position);
+                   }
+               }
+               byEmpId.forEach((empId, positions) -> personal.put(empId, toArray(positions)));
+               bulk = toArray(bulkPositions);
+           }
+
+           // Writes the employee's pay after the steps into pay; returns false if no step touches it
+           boolean fold(Employee emp, Employee.PaySnapshot current, long[] pay) {
+               int[] own = personal.getOrDefault(emp.getEmpId(), NO_STEPS);
+               pay[BASIC] = current.basicPayCents();
+               pay[HRA] = current.hraCents();
+               pay[BONUS] = current.bonusCents();
+               pay[WORKING_DAYS] = emp instanceof DailyWageEmployee ? ((DailyWageEmployee) emp).getWorkingDays() : 0;
+               boolean touched = false;
+               int i = 0;
+               int j = 0;
+               while (i < own.length || j < bulk.length) {
+                   int position = j == bulk.length || (i < own.length && own[i] < bulk[j]) ? own[i++] : bulk[j++];
+                   Step step = steps.get(position);
+                   if (step.appliesTo(emp)) {
+                       step.apply(emp, pay);
+                       touched = true;
+                   }
+               }
+               return touched;
+           }
+
+           private static int[] toArray(List<Integer> positions) {
+               int[] array = new int[positions.size()];
+               for (int k = 0; k < array.length; k++) {
+                   array[k] = positions.get(k);
+               }
+               return array;
+           }
+       }
+
+       // Per-chunk totals before and after the steps, merged in roster order
+       private static final class Tally {
+           final PayrollSummary before = new PayrollSummary();
+           final PayrollSummary after = new PayrollSummary();
+           final long[] pay = new long[4];
+           int changed;
+
+           void add(Employee emp, Plan plan) {
+               Employee.PaySnapshot current = emp.paySnapshot();
+               long salaryCents = current.salaryCents();
+               long scenarioCents = salaryCents;
+               if (plan.fold(emp, current, pay)) {
+                   scenarioCents = emp instanceof DailyWageEmployee
+                       ? DailyWageEmployee.salaryCents(((DailyWageEmployee) emp).getDailyRateCents(), (int) pay[WORKING_DAYS], pay[BONUS])
+                       : emp.computeSalaryCents(pay[BASIC], pay[HRA], pay[BONUS]);
+               }
+               before.accept(emp.getEmpId(), emp.getName(), emp.getClass(), salaryCents, emp.getHireDate());
+               after.accept(emp.getEmpId(), emp.getName(), emp.getClass(), scenarioCents, emp.getHireDate());
+               if (scenarioCents != salaryCents) {
+                   changed++;
+               }
+           }
+
+           Tally merge(Tally other) {
+               before.merge(other.before);
+               after.merge(other.after);
+               changed += other.changed;
+               return this;
+           }
+       }
+   }
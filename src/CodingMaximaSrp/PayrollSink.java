@@ -0,0 +1,16 @@
+package CodingMaximaSrp;
+
+   import java.time.LocalDate;
+
+   // Receives payroll rows one at a time as SalarySystem.streamPayroll visits employees
+   @FunctionalInterface
+   public interface PayrollSink {
+       void accept(String empId, String name, Class<? extends Employee> type, long salaryCents, LocalDate hireDate);
+
+       default PayrollSink andThen(PayrollSink next) {
+           return (empId, name, type, salaryCents, hireDate) -> {
+               accept(empId, name, type, salaryCents, hireDate);
+               next.accept(empId, name, type, salaryCents, hireDate);
+           };
+       }
+   }
@@ -0,0 +1,82 @@
+package CodingMaximaSrp;
+
+   import java.time.LocalDate;
+   import java.util.HashMap;
+   import java.util.Map;
+
+   // Headcount and salary totals accumulated from a payroll stream. Per-type figures follow
+   // instanceof, so a subclass counts towards its parent types as well. Not thread-safe.
+   public class PayrollSummary implements PayrollSink {
+       private final Map<Class<? extends Employee>, long[]> byClass = new HashMap<>(); // {count, salary cents}
+       private int employeeCount;
+       private long totalSalaryCents;
+
+       @Override
+       public void accept(String empId, String name, Class<? extends Employee> type, long salaryCents, LocalDate hireDate) {
+           long[] totals = byClass.computeIfAbsent(type, t -> new long[2]);
+           totals[0]++;
+           totals[1] = Money.add(totals[1], salaryCents);
+           employeeCount++;
+           totalSalaryCents = Money.add(totalSalaryCents, salaryCents);
+       }
+
+       // Adds the figures of count employees of one type at once, e.g. from a columnar payroll run
+       void addTotals(Class<? extends Employee> type, int count, long salaryCents) {
+           if (count == 0) {
+               return;
+           }
+           long[] totals = byClass.computeIfAbsent(type, t -> new long[2]);
+           totals[0] += count;
+           totals[1] = Money.add(totals[1], salaryCents);
+           employeeCount += count;
+           totalSalaryCents = Money.add(totalSalaryCents, salaryCents);
+       }
+
+       // Adds another summary's figures to this one; returns this
+       PayrollSummary merge(PayrollSummary other) {
+           for (Map.Entry<Class<? extends Employee>, long[]> entry : other.byClass.entrySet()) {
+               long[] totals = byClass.computeIfAbsent(entry.getKey(), t -> new long[2]);
+               totals[0] += entry.getValue()[0];
+               totals[1] = Money.add(totals[1], entry.getValue()[1]);
+           }
+           employeeCount += other.employeeCount;
+           totalSalaryCents = Money.add(totalSalaryCents, other.totalSalaryCents);
+           return this;
+       }
+
+       public int getEmployeeCount() {
+           return employeeCount;
+       }
+
+       public long getTotalSalaryCents() {
+           return totalSalaryCents;
+       }
+
+       public double getTotalSalary() {
+           return Money.toDouble(totalSalaryCents);
+       }
+
+       public double getAverageSalary() {
+           return employeeCount == 0 ? 0.0 : Money.toDouble(Money.divide(totalSalaryCents, employeeCount));
+       }
+
+       public int getCount(Class<? extends Employee> employeeType) {
+           long count = 0;
+           for (Map.Entry<Class<? extends Employee>, long[]> entry : byClass.entrySet()) {
+               if (employeeType.isAssignableFrom(entry.getKey())) {
+                   count += entry.getValue()[0];
+               }
+           }
+           return (int) count;
+       }
+
+       public long getTotalSalaryCents(Class<? extends Employee> employeeType) {
+           long total = 0;
+           for (Map.Entry<Class<? extends Employee>, long[]> entry : byClass.entrySet()) {
+               if (employeeType.isAssignableFrom(entry.getKey())) {
+                   total = Money.add(total, entry.getValue()[1]);
+               }
+           }
+           return total;
+       }
+   }
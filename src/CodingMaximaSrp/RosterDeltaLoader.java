@@ -0,0 +1,146 @@
+package CodingMaximaSrp;
+
+   import com.opencsv.CSVReader;
+   import com.opencsv.exceptions.CsvValidationException;
+   import java.io.IOException;
+   import java.nio.BufferOverflowException;
+   import java.nio.ByteBuffer;
+   import java.nio.file.Path;
+   import java.util.ArrayList;
+   import java.util.EnumMap;
+   import java.util.HashMap;
+   import java.util.HashSet;
+   import java.util.LinkedHashMap;
+   import java.util.List;
+   import java.util.Map;
+   import java.util.Set;
+   import java.util.function.Consumer;
+
+   // Re-ingests a rewritten roster file by diffing it against the rows ingested last time: each row
+   // is reduced to a 64-bit hash of its content and compared by emp_id, and only inserted, changed
+   // and deleted rows reach the salary system. Unchanged rows keep their in-memory employee,
+   // including adjustments made since. Hashes always come from file rows, never from live employees,
+   // so a roster type needs a baseline: either baseline() over the file it was first loaded from, or
+   // a first apply(), which loads every row as inserted. Not thread-safe.
+   public class RosterDeltaLoader {
+       private final SalarySystem system;
+       private final Map<RosterType, Map<String, Long>> rowHashes = new EnumMap<>(RosterType.class);
+       private ByteBuffer scratch = ByteBuffer.allocate(256);
+
+       public record Delta(RosterType type, List<String> inserted, List<String> updated, List<String> deleted, int unchanged) {
+           public boolean isEmpty() {
+               return inserted.isEmpty() && updated.isEmpty() && deleted.isEmpty();
+           }
+
+           @Override
+           public String toString() {
+               return type.getLabel() + " roster: " + inserted.size() + " inserted, " + updated.size() + " updated, "
+                   + deleted.size() + " deleted, " + unchanged + " unchanged";
+           }
+       }
+
+       public RosterDeltaLoader(SalarySystem system) {
+           this.system = system;
+       }
+
+       // Records the rows of a file that was already loaded into the system by other means, so the
+       // next apply for this roster type reports only what changed since that file
+       public void baseline(Path csvFile, RosterType type) throws CsvValidationException, IOException {
+           Map<String, Long> hashes = new HashMap<>();
+           readRows(csvFile, type, (emp, hash) -> hashes.put(emp.getEmpId(), hash), empId -> { });
+           rowHashes.put(type, hashes);
+       }
+
+       public Delta apply(Path csvFile, RosterType type) throws CsvValidationException, IOException {
+           Map<String, Long> previous = rowHashes.getOrDefault(type, Map.of());
+           Map<String, Long> current = new HashMap<>(previous.size() * 4 / 3 + 16);
+           Map<String, Employee> changed = new LinkedHashMap<>();
+           Set<String> unreadable = new HashSet<>();
+
+           readRows(csvFile, type, (emp, hash) -> {
+               unreadable.remove(emp.getEmpId());
+               current.put(emp.getEmpId(), hash); // A repeated emp_id resolves to its last row
+               Long before = previous.get(emp.getEmpId());
+               if (before == null || before != hash) {
+                   changed.put(emp.getEmpId(), emp);
+               } else {
+                   changed.remove(emp.getEmpId());
+               }
+           }, unreadable::add); // Keep whatever is loaded rather than treat it as deleted
+
+           List<String> deleted = new ArrayList<>();
+           for (Map.Entry<String, Long> entry : previous.entrySet()) {
+               String empId = entry.getKey();
+               if (current.containsKey(empId)) continue;
+               if (unreadable.contains(empId)) {
+                   current.put(empId, entry.getValue());
+                   continue;
+               }
+               // The emp_id may since have been loaded from another roster; leave that employee alone
+               Employee loaded = system.getEmployee(empId);
+               if (loaded != null && RosterType.forEmployee(loaded) == type) {
+                   system.removeEmployee(empId);
+                   deleted.add(empId);
+               }
+           }
+
+           List<String> inserted = new ArrayList<>();
+           List<String> updated = new ArrayList<>();
+           List<Employee> batch = new ArrayList<>();
+           for (Employee emp : changed.values()) {
+               (previous.containsKey(emp.getEmpId()) ? updated : inserted).add(emp.getEmpId());
+               batch.add(emp);
+               if (batch.size() == EmployeeCsvLoader.DEFAULT_BATCH_SIZE) {
+                   system.addEmployees(batch);
+                   batch = new ArrayList<>();
+               }
+           }
+           system.addEmployees(batch);
+
+           rowHashes.put(type, current);
+           return new Delta(type, inserted, updated, deleted, current.size() - changed.size());
+       }
+
+       private interface RowVisitor {
+           void accept(Employee emp, long hash);
+       }
+
+       private void readRows(Path csvFile, RosterType type, RowVisitor parsed, Consumer<String> unparsable)
+               throws CsvValidationException, IOException {
+           try (CSVReader reader = new CSVReader(EmployeeCsvLoader.openChannelReader(csvFile))) {
+               reader.readNext(); // Skip header
+               String[] line;
+               while ((line = reader.readNext()) != null) {
+                   if (line.length < type.getMinColumns()) continue; // Skip invalid rows
+                   Employee emp;
+                   try {
+                       emp = type.getRowParser().parse(line);
+                   } catch (Exception e) {
+                       System.err.println("Error parsing " + type.getLabel() + " employee: " + e.getMessage());
+                       unparsable.accept(line[0].trim());
+                       continue;
+                   }
+                   parsed.accept(emp, contentHash(emp, type));
+               }
+           }
+       }
+
+       // FNV-1a over the employee's snapshot encoding, which covers every field a roster row sets
+       private long contentHash(Employee emp, RosterType type) {
+           while (true) {
+               try {
+                   scratch.clear();
+                   EmployeeRecordCodec.encode(emp, type, scratch);
+                   break;
+               } catch (BufferOverflowException e) {
+                   scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+               }
+           }
+           long hash = 0xcbf29ce484222325L;
+           for (int i = 0; i < scratch.position(); i++) {
+               hash ^= scratch.get(i) & 0xff;
+               hash *= 0x100000001b3L;
+           }
+           return hash;
+       }
+   }
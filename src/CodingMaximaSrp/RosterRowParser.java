@@ -0,0 +1,220 @@
+package CodingMaximaSrp;
+
+   import com.opencsv.CSVParser;
+   import java.io.IOException;
+   import java.nio.ByteBuffer;
+   import java.nio.charset.StandardCharsets;
+   import java.time.LocalDate;
+   import java.util.function.Consumer;
+
+   // Decodes roster rows straight from a byte buffer: ISO dates, money and ints are read in place
+   // without an intermediate String per field. Lines containing quotes or escapes, and rows the fast
+   // path cannot decode, go through opencsv and the regular row parser, so malformed rows are
+   // skipped or reported exactly as EmployeeCsvLoader does. Instances are not thread-safe.
+   class RosterRowParser {
+       private static final int MAX_TRACKED_FIELDS = 16;
+       private static final int MAX_MONEY_DIGITS = 15;
+
+       private final RosterType type;
+       private final int[] fieldStart = new int[MAX_TRACKED_FIELDS];
+       private final int[] fieldEnd = new int[MAX_TRACKED_FIELDS];
+       private byte[] scratch = new byte[128];
+       private CSVParser fallbackParser;
+       private int rejected;
+
+       RosterRowParser(RosterType type) {
+           this.type = type;
+       }
+
+       // Parses every line in [position, limit) of the buffer; returns the number of employees produced
+       int parse(ByteBuffer buffer, Consumer<Employee> sink) {
+           int parsed = 0;
+           int pos = buffer.position();
+           int limit = buffer.limit();
+           while (pos < limit) {
+               int eol = pos;
+               boolean needsCsvParser = false;
+               while (eol < limit) {
+                   byte b = buffer.get(eol);
+                   if (b == '\n') break;
+                   if (b == '"' || b == '\\') needsCsvParser = true;
+                   eol++;
+               }
+               int lineEnd = eol > pos && buffer.get(eol - 1) == '\r' ? eol - 1 : eol;
+               Employee employee = needsCsvParser ? parseWithOpenCsv(buffer, pos, lineEnd) : parseLine(buffer, pos, lineEnd);
+               if (employee != null) {
+                   sink.accept(employee);
+                   parsed++;
+               } else {
+                   rejected++;
+               }
+               pos = eol + 1;
+           }
+           return parsed;
+       }
+
+       // Lines skipped or reported as invalid so far
+       int getRejectedCount() {
+           return rejected;
+       }
+
+       private Employee parseLine(ByteBuffer buffer, int from, int to) {
+           int fields = 0;
+           int start = from;
+           for (int i = from; i <= to; i++) {
+               if (i == to || buffer.get(i) == ',') {
+                   if (fields < MAX_TRACKED_FIELDS) {
+                       fieldStart[fields] = start;
+                       fieldEnd[fields] = i;
+                   }
+                   fields++;
+                   start = i + 1;
+               }
+           }
+           if (fields < type.getMinColumns()) return null; // Skip invalid rows
+           for (int f = 0; f < type.getMinColumns(); f++) {
+               trimField(buffer, f);
+           }
+           try {
+               return decode(buffer);
+           } catch (RuntimeException e) {
+               // Let the regular parser produce the same outcome and error message as the opencsv path
+               return parseWithOpenCsv(buffer, from, to);
+           }
+       }
+
+       private Employee decode(ByteBuffer buffer) {
+           String empId = readString(buffer, 0);
+           String name = readString(buffer, 1);
+           LocalDate hireDate = readDate(buffer, 2);
+           switch (type) {
+               case FULL_TIME: {
+                   return FullTimeEmployee.ofCents(empId, name, hireDate, readCents(buffer, 3), readCents(buffer, 4), readCents(buffer, 5));
+               }
+               case CONTRACT:
+                   return ContractEmployee.ofCents(empId, name, hireDate, readCents(buffer, 3), readInt(buffer, 5));
+               case DAILY_WAGE:
+                   return DailyWageEmployee.ofCents(empId, name, hireDate, readCents(buffer, 3), readInt(buffer, 4));
+               default:
+                   throw new IllegalStateException("Unsupported roster type " + type);
+           }
+       }
+
+       private Employee parseWithOpenCsv(ByteBuffer buffer, int from, int to) {
+           if (fallbackParser == null) {
+               fallbackParser = new CSVParser();
+           }
+           String[] line;
+           try {
+               line = fallbackParser.parseLine(decodeUtf8(buffer, from, to));
+               if (fallbackParser.isPending()) {
+                   fallbackParser = new CSVParser(); // Unterminated quote; never carry it into the next row
+               }
+           } catch (IOException e) {
+               System.err.println("Error parsing " + type.getLabel() + " employee: " + e.getMessage());
+               return null;
+           }
+           if (line == null || line.length < type.getMinColumns()) return null; // Skip invalid rows
+           try {
+               return type.getRowParser().parse(line);
+           } catch (Exception e) {
+               System.err.println("Error parsing " + type.getLabel() + " employee: " + e.getMessage());
+               return null;
+           }
+       }
+
+       private void trimField(ByteBuffer buffer, int field) {
+           int start = fieldStart[field];
+           int end = fieldEnd[field];
+           while (start < end && (buffer.get(start) & 0xff) <= ' ') start++;
+           while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') end--;
+           fieldStart[field] = start;
+           fieldEnd[field] = end;
+       }
+
+       private String readString(ByteBuffer buffer, int field) {
+           return decodeUtf8(buffer, fieldStart[field], fieldEnd[field]);
+       }
+
+       private String decodeUtf8(ByteBuffer buffer, int from, int to) {
+           int length = to - from;
+           if (scratch.length < length) {
+               scratch = new byte[Math.max(length, scratch.length * 2)];
+           }
+           buffer.get(from, scratch, 0, length);
+           return new String(scratch, 0, length, StandardCharsets.UTF_8);
+       }
+
+       // yyyy-MM-dd only; anything else falls back to LocalDate.parse
+       private LocalDate readDate(ByteBuffer buffer, int field) {
+           int start = fieldStart[field];
+           if (fieldEnd[field] - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+               throw new NumberFormatException("Not an ISO date");
+           }
+           int year = digits(buffer, start, 4);
+           int month = digits(buffer, start + 5, 2);
+           int day = digits(buffer, start + 8, 2);
+           return LocalDate.of(year, month, day);
+       }
+
+       // Fixed-point decimal with at most two fraction digits, decoded as whole cents; this equals
+       // Money.ofDouble(Double.parseDouble(field)) for every amount it accepts
+       private long readCents(ByteBuffer buffer, int field) {
+           int pos = fieldStart[field];
+           int end = fieldEnd[field];
+           boolean negative = false;
+           if (pos < end && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+               negative = buffer.get(pos) == '-';
+               pos++;
+           }
+           long cents = 0;
+           int digitCount = 0;
+           int fractionDigits = -1;
+           for (; pos < end; pos++) {
+               byte b = buffer.get(pos);
+               if (b == '.' && fractionDigits < 0) {
+                   fractionDigits = 0;
+               } else if (b >= '0' && b <= '9' && digitCount < MAX_MONEY_DIGITS && fractionDigits < 2) {
+                   cents = cents * 10 + (b - '0');
+                   digitCount++;
+                   if (fractionDigits >= 0) fractionDigits++;
+               } else {
+                   throw new NumberFormatException("Not a fixed-point amount");
+               }
+           }
+           if (digitCount == 0) {
+               throw new NumberFormatException("Empty amount");
+           }
+           for (int scale = Math.max(fractionDigits, 0); scale < 2; scale++) {
+               cents *= 10;
+           }
+           return negative ? -cents : cents;
+       }
+
+       private int readInt(ByteBuffer buffer, int field) {
+           int pos = fieldStart[field];
+           int end = fieldEnd[field];
+           boolean negative = false;
+           if (pos < end && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+               negative = buffer.get(pos) == '-';
+               pos++;
+           }
+           if (pos == end || end - pos > 9) {
+               throw new NumberFormatException("Not a plain int");
+           }
+           int value = digits(buffer, pos, end - pos);
+           return negative ? -value : value;
+       }
+
+       private static int digits(ByteBuffer buffer, int from, int count) {
+           int value = 0;
+           for (int i = from; i < from + count; i++) {
+               int digit = buffer.get(i) - '0';
+               if (digit < 0 || digit > 9) {
+                   throw new NumberFormatException("Not a digit");
+               }
+               value = value * 10 + digit;
+           }
+           return value;
+       }
+   }
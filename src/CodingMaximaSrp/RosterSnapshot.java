@@ -0,0 +1,226 @@
+package CodingMaximaSrp;
+
+   import java.io.IOException;
+   import java.nio.BufferOverflowException;
+   import java.nio.BufferUnderflowException;
+   import java.nio.ByteBuffer;
+   import java.nio.MappedByteBuffer;
+   import java.nio.channels.FileChannel;
+   import java.nio.file.Path;
+   import java.nio.file.StandardOpenOption;
+   import java.time.DateTimeException;
+   import java.util.ArrayList;
+   import java.util.Collection;
+   import java.util.List;
+   import java.util.zip.CRC32;
+
+   // Binary image of a roster, read back through memory mapping:
+   //
+   //   header   magic "EMPS" (int), format version (short), section count (int),
+   //            last journal sequence folded in (long)
+   //   section  roster type ordinal (byte), record count (int), payload length (long), payload CRC32 (int),
+   //            then the records, encoded by EmployeeRecordCodec
+   //
+   // Sections hold one roster type each and are capped in size so each maps as one buffer; a large
+   // roster simply has several sections of the same type. All integers are big-endian.
+   final class RosterSnapshot {
+       static final int MAGIC = 0x454D5053; // "EMPS"
+       static final short FORMAT_VERSION = 2;
+       private static final int HEADER_SIZE = 18;
+       private static final int SECTION_HEADER_SIZE = 17;
+       private static final int MAX_SECTION_BYTES = 1 << 30;
+       private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+       record Contents(int employees, long journalSequence) {
+       }
+
+       private RosterSnapshot() {
+       }
+
+       // Writes the employees from the start of the channel; returns the number written
+       static int write(Collection<Employee> employees, FileChannel channel, long journalSequence) throws IOException {
+           for (Employee emp : employees) {
+               if (RosterType.forEmployee(emp) == null) {
+                   throw new IllegalArgumentException("Employee " + emp.getEmpId() + " of type "
+                       + emp.getClass().getSimpleName() + " cannot be written to a snapshot");
+               }
+           }
+           channel.truncate(0);
+           SectionWriter writer = new SectionWriter(channel);
+           writer.buffer.putInt(MAGIC).putShort(FORMAT_VERSION).putInt(0).putLong(journalSequence);
+           for (RosterType type : RosterType.values()) {
+               writer.startSection(type);
+               for (Employee emp : employees) {
+                   if (RosterType.forEmployee(emp) == type) {
+                       writer.add(emp);
+                   }
+               }
+               writer.finishSection();
+           }
+           writer.flush();
+           channel.write(ByteBuffer.allocate(4).putInt(0, writer.sections), 6);
+           return writer.written;
+       }
+
+       // Verifies every section checksum before adding anything, so a damaged file loads nothing
+       static Contents read(Path file, SalarySystem system) throws IOException {
+           try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+               long size = channel.size();
+               ByteBuffer header = readFully(channel, 0, HEADER_SIZE, size);
+               if (header.getInt() != MAGIC) {
+                   throw new IOException("Not an employee snapshot: " + file);
+               }
+               short version = header.getShort();
+               if (version != FORMAT_VERSION) {
+                   throw new IOException("Unsupported snapshot version " + version);
+               }
+               int sectionCount = header.getInt();
+               long journalSequence = header.getLong();
+               List<RosterType> types = new ArrayList<>();
+               List<Integer> counts = new ArrayList<>();
+               List<MappedByteBuffer> payloads = new ArrayList<>();
+               long position = HEADER_SIZE;
+               for (int s = 0; s < sectionCount; s++) {
+                   ByteBuffer sectionHeader = readFully(channel, position, SECTION_HEADER_SIZE, size);
+                   int ordinal = sectionHeader.get();
+                   int count = sectionHeader.getInt();
+                   long length = sectionHeader.getLong();
+                   int checksum = sectionHeader.getInt();
+                   position += SECTION_HEADER_SIZE;
+                   if (ordinal < 0 || ordinal >= RosterType.values().length || count < 0
+                           || length < 0 || length > MAX_SECTION_BYTES || length > size - position) {
+                       throw new IOException("Corrupt snapshot section header at offset " + (position - SECTION_HEADER_SIZE));
+                   }
+                   MappedByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                   CRC32 crc = new CRC32();
+                   crc.update(payload.duplicate());
+                   if ((int) crc.getValue() != checksum) {
+                       throw new IOException("Snapshot checksum mismatch in section " + s);
+                   }
+                   types.add(RosterType.values()[ordinal]);
+                   counts.add(count);
+                   payloads.add(payload);
+                   position += length;
+               }
+               if (position != size) {
+                   throw new IOException("Unexpected data after the last snapshot section");
+               }
+               int loaded = 0;
+               for (int s = 0; s < sectionCount; s++) {
+                   loaded += readSection(types.get(s), counts.get(s), payloads.get(s), system);
+               }
+               return new Contents(loaded, journalSequence);
+           }
+       }
+
+       private static int readSection(RosterType type, int count, ByteBuffer payload, SalarySystem system) throws IOException {
+           List<Employee> batch = new ArrayList<>(Math.min(count, EmployeeCsvLoader.DEFAULT_BATCH_SIZE));
+           try {
+               for (int i = 0; i < count; i++) {
+                   batch.add(EmployeeRecordCodec.decode(type, payload));
+                   if (batch.size() == EmployeeCsvLoader.DEFAULT_BATCH_SIZE) {
+                       system.addEmployees(batch);
+                       batch = new ArrayList<>(EmployeeCsvLoader.DEFAULT_BATCH_SIZE);
+                   }
+               }
+           } catch (BufferUnderflowException | IllegalArgumentException | ArithmeticException | DateTimeException e) {
+               throw new IOException("Corrupt " + type.getLabel() + " snapshot record", e);
+           }
+           if (payload.hasRemaining()) {
+               throw new IOException("Corrupt " + type.getLabel() + " snapshot section: trailing bytes");
+           }
+           system.addEmployees(batch);
+           return count;
+       }
+
+       private static ByteBuffer readFully(FileChannel channel, long position, int length, long size) throws IOException {
+           if (position + length > size) {
+               throw new IOException("Truncated snapshot");
+           }
+           ByteBuffer buffer = ByteBuffer.allocate(length);
+           while (buffer.hasRemaining()) {
+               if (channel.read(buffer, position + buffer.position()) < 0) {
+                   throw new IOException("Truncated snapshot");
+               }
+           }
+           return buffer.flip();
+       }
+
+       // Streams records through one buffer, checksumming each section's payload as it is flushed
+       // and filling in the section header once the section is complete
+       private static class SectionWriter {
+           private final FileChannel channel;
+           private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+           private final CRC32 crc = new CRC32();
+           private long flushed;
+           private int checksumFrom;
+           private RosterType type;
+           private long sectionStart;
+           private int sectionCount;
+           private int sections;
+           private int written;
+
+           SectionWriter(FileChannel channel) {
+               this.channel = channel;
+           }
+
+           void startSection(RosterType sectionType) throws IOException {
+               if (buffer.remaining() < SECTION_HEADER_SIZE) {
+                   flush();
+               }
+               type = sectionType;
+               sectionStart = flushed + buffer.position();
+               sectionCount = 0;
+               crc.reset();
+               buffer.position(buffer.position() + SECTION_HEADER_SIZE); // Filled in by finishSection
+               checksumFrom = buffer.position();
+           }
+
+           void add(Employee emp) throws IOException {
+               if (payloadLength() >= MAX_SECTION_BYTES - WRITE_BUFFER_SIZE) {
+                   finishSection();
+                   startSection(type);
+               }
+               int start = buffer.position();
+               try {
+                   EmployeeRecordCodec.encode(emp, type, buffer);
+               } catch (BufferOverflowException e) {
+                   buffer.position(start);
+                   flush();
+                   try {
+                       EmployeeRecordCodec.encode(emp, type, buffer);
+                   } catch (BufferOverflowException tooLarge) {
+                       throw new IOException("Employee " + emp.getEmpId() + " is too large for a snapshot record");
+                   }
+               }
+               sectionCount++;
+               written++;
+           }
+
+           void finishSection() throws IOException {
+               long length = payloadLength();
+               flush();
+               ByteBuffer header = ByteBuffer.allocate(SECTION_HEADER_SIZE);
+               header.put((byte) type.ordinal()).putInt(sectionCount).putLong(length).putInt((int) crc.getValue());
+               header.flip();
+               while (header.hasRemaining()) {
+                   channel.write(header, sectionStart + header.position());
+               }
+               sections++;
+           }
+
+           void flush() throws IOException {
+               crc.update(buffer.array(), checksumFrom, buffer.position() - checksumFrom);
+               buffer.flip();
+               while (buffer.hasRemaining()) {
+                   flushed += channel.write(buffer, flushed);
+               }
+               buffer.clear();
+               checksumFrom = 0;
+           }
+
+           private long payloadLength() {
+               return flushed + buffer.position() - sectionStart - SECTION_HEADER_SIZE;
+           }
+       }
+   }
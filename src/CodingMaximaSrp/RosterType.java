@@ -0,0 +1,45 @@
+package CodingMaximaSrp;
+
+   public enum RosterType {
+       FULL_TIME("full-time", 7, FullTimeEmployee.class, EmployeeCsvLoader::parseFullTimeRow),
+       CONTRACT("contract", 6, ContractEmployee.class, EmployeeCsvLoader::parseContractRow),
+       DAILY_WAGE("daily wage", 7, DailyWageEmployee.class, EmployeeCsvLoader::parseDailyWageRow);
+
+       private final String label;
+       private final int minColumns;
+       private final Class<? extends Employee> employeeType;
+       private final EmployeeCsvLoader.RowParser rowParser;
+
+       RosterType(String label, int minColumns, Class<? extends Employee> employeeType, EmployeeCsvLoader.RowParser rowParser) {
+           this.label = label;
+           this.minColumns = minColumns;
+           this.employeeType = employeeType;
+           this.rowParser = rowParser;
+       }
+
+       // Exact class match; returns null for employee types without a roster schema
+       public static RosterType forEmployee(Employee employee) {
+           for (RosterType type : values()) {
+               if (type.employeeType == employee.getClass()) {
+                   return type;
+               }
+           }
+           return null;
+       }
+
+       public String getLabel() {
+           return label;
+       }
+
+       public int getMinColumns() {
+           return minColumns;
+       }
+
+       public Class<? extends Employee> getEmployeeType() {
+           return employeeType;
+       }
+
+       EmployeeCsvLoader.RowParser getRowParser() {
+           return rowParser;
+       }
+   }
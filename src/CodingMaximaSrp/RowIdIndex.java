@@ -0,0 +1,142 @@
+package CodingMaximaSrp;
+
+   import java.util.Arrays;
+   import java.util.HashMap;
+   import java.util.Map;
+
+   // emp_id to row number for ColumnarEmployeeStore. UUID ids are parsed into two longs, as in
+   // EmployeeIdMap, and kept in an open-addressing table beside an int[] of rows, so an entry costs
+   // two longs and an int with no boxing; any other id goes to a HashMap. Not thread-safe.
+   final class RowIdIndex {
+       static final int NO_ROW = -1;
+       private static final int MIN_CAPACITY = 64;
+
+       private final Map<String, Integer> otherIds = new HashMap<>();
+       private long[] keys; // High and low halves of slot i at 2i and 2i + 1
+       private int[] rows; // NO_ROW marks a free slot
+       private int mask;
+       private int uuidCount;
+
+       RowIdIndex(int expectedSize) {
+           int capacity = MIN_CAPACITY;
+           while (capacity * 3L < expectedSize * 4L) {
+               capacity *= 2;
+           }
+           allocate(capacity);
+       }
+
+       int get(String empId) {
+           long high;
+           long low;
+           if (!EmployeeIdMap.hasUuidShape(empId) || (high = EmployeeIdMap.highBits(empId)) == EmployeeIdMap.NOT_HEX
+                   || (low = EmployeeIdMap.lowBits(empId)) == EmployeeIdMap.NOT_HEX) {
+               Integer row = otherIds.get(empId);
+               return row != null ? row : NO_ROW;
+           }
+           int slot = find(high, low);
+           return slot >= 0 ? rows[slot] : NO_ROW;
+       }
+
+       void put(String empId, int row) {
+           long high;
+           long low;
+           if (!EmployeeIdMap.hasUuidShape(empId) || (high = EmployeeIdMap.highBits(empId)) == EmployeeIdMap.NOT_HEX
+                   || (low = EmployeeIdMap.lowBits(empId)) == EmployeeIdMap.NOT_HEX) {
+               otherIds.put(empId, row);
+               return;
+           }
+           int slot = find(high, low);
+           if (slot >= 0) {
+               rows[slot] = row;
+               return;
+           }
+           if ((uuidCount + 1) * 4L > (mask + 1) * 3L) { // Keeps the load factor at or below 0.75
+               resize();
+           }
+           insert(high, low, row);
+           uuidCount++;
+       }
+
+       // Returns the row the id was mapped to, or NO_ROW
+       int remove(String empId) {
+           long high;
+           long low;
+           if (!EmployeeIdMap.hasUuidShape(empId) || (high = EmployeeIdMap.highBits(empId)) == EmployeeIdMap.NOT_HEX
+                   || (low = EmployeeIdMap.lowBits(empId)) == EmployeeIdMap.NOT_HEX) {
+               Integer row = otherIds.remove(empId);
+               return row != null ? row : NO_ROW;
+           }
+           int slot = find(high, low);
+           if (slot < 0) {
+               return NO_ROW;
+           }
+           int row = rows[slot];
+           deleteSlot(slot);
+           uuidCount--;
+           return row;
+       }
+
+       private int home(long high, long low) {
+           long h = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+           return (int) (h ^ (h >>> 32)) & mask;
+       }
+
+       private int find(long high, long low) {
+           int slot = home(high, low);
+           while (rows[slot] != NO_ROW) {
+               if (keys[2 * slot] == high && keys[2 * slot + 1] == low) {
+                   return slot;
+               }
+               slot = (slot + 1) & mask;
+           }
+           return -1;
+       }
+
+       private void allocate(int capacity) {
+           keys = new long[capacity * 2];
+           rows = new int[capacity];
+           Arrays.fill(rows, NO_ROW);
+           mask = capacity - 1;
+       }
+
+       private void resize() {
+           long[] oldKeys = keys;
+           int[] oldRows = rows;
+           allocate(oldRows.length * 2);
+           for (int slot = 0; slot < oldRows.length; slot++) {
+               if (oldRows[slot] != NO_ROW) {
+                   insert(oldKeys[2 * slot], oldKeys[2 * slot + 1], oldRows[slot]);
+               }
+           }
+       }
+
+       private void insert(long high, long low, int row) {
+           int slot = home(high, low);
+           while (rows[slot] != NO_ROW) {
+               slot = (slot + 1) & mask;
+           }
+           keys[2 * slot] = high;
+           keys[2 * slot + 1] = low;
+           rows[slot] = row;
+       }
+
+       // Backward-shift deletion, as in EmployeeIdMap
+       private void deleteSlot(int gap) {
+           int slot = gap;
+           while (true) {
+               slot = (slot + 1) & mask;
+               if (rows[slot] == NO_ROW) {
+                   break;
+               }
+               int home = home(keys[2 * slot], keys[2 * slot + 1]);
+               boolean homeAfterGap = gap <= slot ? (home > gap && home <= slot) : (home > gap || home <= slot);
+               if (!homeAfterGap) {
+                   keys[2 * gap] = keys[2 * slot];
+                   keys[2 * gap + 1] = keys[2 * slot + 1];
+                   rows[gap] = rows[slot];
+                   gap = slot;
+               }
+           }
+           rows[gap] = NO_ROW;
+       }
+   }
@@ -0,0 +1,74 @@
+package CodingMaximaSrp;
+
+   import java.util.ArrayList;
+   import java.util.Collection;
+   import java.util.Collections;
+   import java.util.Iterator;
+   import java.util.List;
+   import java.util.NavigableMap;
+   import java.util.concurrent.ConcurrentSkipListMap;
+
+   // Employees ordered by net salary cents, kept current from SalarySystem's salary notifications.
+   // Backed by a skip list: range queries cost O(log n + k) and top/bottom-N never sort the roster.
+   class SalaryIndex {
+       private final ConcurrentSkipListMap<IndexKey, Employee> bySalary = new ConcurrentSkipListMap<>();
+
+       void add(Employee emp) {
+           bySalary.put(new IndexKey(emp.calculateSalaryCents(), emp.getEmpId()), emp);
+       }
+
+       // Removes only this instance, so a replacement with the same emp_id and salary survives
+       void remove(Employee emp, long salaryCents) {
+           bySalary.remove(new IndexKey(salaryCents, emp.getEmpId()), emp);
+       }
+
+       void update(Employee emp, long oldSalaryCents, long newSalaryCents) {
+           remove(emp, oldSalaryCents);
+           bySalary.put(new IndexKey(newSalaryCents, emp.getEmpId()), emp);
+       }
+
+       List<Employee> range(long minCents, long maxCents) {
+           return new ArrayList<>(slice(minCents, maxCents).values());
+       }
+
+       // Weakly consistent view: reflects concurrent changes without ever throwing
+       Iterator<Employee> iterator(long minCents, long maxCents) {
+           return Collections.unmodifiableCollection(slice(minCents, maxCents).values()).iterator();
+       }
+
+       List<Employee> lowest(int count) {
+           return first(bySalary.values(), count);
+       }
+
+       List<Employee> highest(int count) {
+           return first(bySalary.descendingMap().values(), count);
+       }
+
+       List<Employee> ascending() {
+           return new ArrayList<>(bySalary.values());
+       }
+
+       List<Employee> descending() {
+           return new ArrayList<>(bySalary.descendingMap().values());
+       }
+
+       private NavigableMap<IndexKey, Employee> slice(long minCents, long maxCents) {
+           if (minCents > maxCents) {
+               return Collections.emptyNavigableMap();
+           }
+           NavigableMap<IndexKey, Employee> tail = bySalary.tailMap(IndexKey.lowerBound(minCents), true);
+           return maxCents == Long.MAX_VALUE ? tail : tail.headMap(IndexKey.lowerBound(maxCents + 1), false);
+       }
+
+       private static List<Employee> first(Collection<Employee> ordered, int count) {
+           if (count < 0) {
+               throw new IllegalArgumentException("Count cannot be negative");
+           }
+           List<Employee> result = new ArrayList<>(Math.min(count, 1024));
+           Iterator<Employee> it = ordered.iterator();
+           while (result.size() < count && it.hasNext()) {
+               result.add(it.next());
+           }
+           return result;
+       }
+   }
@@ -0,0 +1,7 @@
+package CodingMaximaSrp;
+
+   // Notified by an Employee whenever one of its mutators changes the cached net salary
+   @FunctionalInterface
+   interface SalaryListener {
+       void salaryChanged(Employee employee, long oldSalaryCents, long newSalaryCents);
+   }
@@ -0,0 +1,385 @@
+package CodingMaximaSrp;
+
+   import com.sun.net.httpserver.HttpExchange;
+   import com.sun.net.httpserver.HttpServer;
+   import java.io.ByteArrayOutputStream;
+   import java.io.Closeable;
+   import java.io.IOException;
+   import java.io.InputStream;
+   import java.io.OutputStream;
+   import java.net.InetSocketAddress;
+   import java.net.URLDecoder;
+   import java.nio.charset.StandardCharsets;
+   import java.nio.file.Path;
+   import java.nio.file.Paths;
+   import java.time.DateTimeException;
+   import java.time.LocalDate;
+   import java.util.ArrayList;
+   import java.util.HashMap;
+   import java.util.Iterator;
+   import java.util.List;
+   import java.util.Locale;
+   import java.util.Map;
+   import java.util.concurrent.ExecutorService;
+   import java.util.concurrent.Executors;
+   import java.util.concurrent.Semaphore;
+
+   // Read-only JSON lookups over a SalarySystem on the JDK's HTTP server, one virtual thread per
+   // request. At most maxConcurrentRequests are served at once; any request beyond that is turned
+   // away with 503 and Retry-After instead of queueing, so a flood of clients cannot pile up work.
+   //
+   //   GET  /salary?id=ID                          one salary, 404 if unknown
+   //   GET  /salaries?id=A&id=B...                 many salaries in one round trip, in request order;
+   //   POST /salaries                              unknown ids map to null. POST takes one id per line.
+   //   GET  /employees?minSalary=&maxSalary=       employees by salary range,
+   //   GET  /employees?type=contract               by roster type,
+   //   GET  /employees?hiredFrom=&hiredTo=         or by hire date range; limit= caps the rows returned
+   //   GET  /report                                payroll totals, recomputed only after a change
+   public class SalaryQueryServer implements Closeable {
+       public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4_096;
+       public static final int DEFAULT_MAX_BATCH_SIZE = 10_000;
+       public static final int DEFAULT_BACKLOG = 16_384;
+       private static final int DEFAULT_LIMIT = 1_000;
+       private static final int MAX_BODY_BYTES = 1 << 20;
+
+       private final SalarySystem system;
+       private final HttpServer server;
+       private final ExecutorService executor;
+       private final Semaphore permits;
+       private final int maxBatchSize;
+       private volatile ReportSnapshot report;
+
+       // A rendered /report body and the modification count it was computed at
+       private record ReportSnapshot(long modificationCount, byte[] body) {
+       }
+
+       private static class BadRequestException extends RuntimeException {
+           private static final long serialVersionUID = 1L;
+
+           final int status;
+
+           BadRequestException(int status, String message) {
+               super(message);
+               this.status = status;
+           }
+       }
+
+       private SalaryQueryServer(SalarySystem system, HttpServer server, int maxConcurrentRequests, int maxBatchSize) {
+           this.system = system;
+           this.server = server;
+           this.executor = Executors.newVirtualThreadPerTaskExecutor();
+           this.permits = new Semaphore(maxConcurrentRequests);
+           this.maxBatchSize = maxBatchSize;
+           server.createContext("/", this::handle);
+           server.setExecutor(executor);
+       }
+
+       public static SalaryQueryServer start(SalarySystem system, InetSocketAddress address) throws IOException {
+           return start(system, address, DEFAULT_MAX_CONCURRENT_REQUESTS, DEFAULT_MAX_BATCH_SIZE, DEFAULT_BACKLOG);
+       }
+
+       public static SalaryQueryServer start(SalarySystem system, InetSocketAddress address, int maxConcurrentRequests,
+               int maxBatchSize, int backlog) throws IOException {
+           if (maxConcurrentRequests <= 0) {
+               throw new IllegalArgumentException("Concurrent request limit must be positive");
+           }
+           if (maxBatchSize <= 0) {
+               throw new IllegalArgumentException("Batch size must be positive");
+           }
+           SalaryQueryServer queryServer = new SalaryQueryServer(system, HttpServer.create(address, backlog),
+               maxConcurrentRequests, maxBatchSize);
+           queryServer.server.start();
+           return queryServer;
+       }
+
+       // Loads the three roster files from a directory and serves them until the process is stopped
+       public static void main(String[] args) throws IOException {
+           if (args.length < 1 || args.length > 2) {
+               System.err.println("Usage: SalaryQueryServer <roster directory> [port]");
+               System.exit(2);
+           }
+           Path directory = Paths.get(args[0]);
+           int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+           SalarySystem system = new SalarySystem();
+           new ParallelEmployeeLoader().loadAll(directory.resolve("full_time_employees.csv"),
+               directory.resolve("contract_employees.csv"), directory.resolve("daily_wage_employees.csv"), system);
+           SalaryQueryServer queryServer = start(system, new InetSocketAddress(port));
+           System.out.println("Serving " + system.countEmployeesByType(Employee.class) + " employees on port "
+               + queryServer.getAddress().getPort());
+       }
+
+       public InetSocketAddress getAddress() {
+           return server.getAddress();
+       }
+
+       // Stops accepting requests and waits for the ones in progress
+       @Override
+       public void close() {
+           server.stop(0);
+           executor.close();
+       }
+
+       private void handle(HttpExchange exchange) throws IOException {
+           try (exchange) {
+               if (!permits.tryAcquire()) {
+                   exchange.getResponseHeaders().set("Retry-After", "1");
+                   sendError(exchange, 503, "Server busy");
+                   return;
+               }
+               try {
+                   route(exchange);
+               } catch (BadRequestException e) {
+                   sendError(exchange, e.status, e.getMessage());
+               } catch (IllegalArgumentException | DateTimeException e) {
+                   sendError(exchange, 400, e.getMessage());
+               } finally {
+                   permits.release();
+               }
+           }
+       }
+
+       private void route(HttpExchange exchange) throws IOException {
+           String path = exchange.getRequestURI().getPath();
+           String method = exchange.getRequestMethod();
+           Map<String, List<String>> query = parseQuery(exchange.getRequestURI().getRawQuery());
+           switch (path) {
+               case "/salary":
+                   requireMethod(method, "GET");
+                   sendSalary(exchange, requireParameter(query, "id"));
+                   break;
+               case "/salaries":
+                   if (method.equals("POST")) {
+                       sendSalaries(exchange, readIds(exchange.getRequestBody()));
+                   } else {
+                       requireMethod(method, "GET");
+                       sendSalaries(exchange, query.getOrDefault("id", List.of()));
+                   }
+                   break;
+               case "/employees":
+                   requireMethod(method, "GET");
+                   sendEmployees(exchange, query);
+                   break;
+               case "/report":
+                   requireMethod(method, "GET");
+                   send(exchange, 200, reportBody());
+                   break;
+               default:
+                   throw new BadRequestException(404, "No such endpoint: " + path);
+           }
+       }
+
+       private void sendSalary(HttpExchange exchange, String empId) throws IOException {
+           Employee employee = system.getEmployee(empId);
+           if (employee == null) {
+               sendError(exchange, 404, "Employee " + empId + " not found");
+               return;
+           }
+           StringBuilder json = new StringBuilder(64).append("{\"id\":");
+           appendString(json, empId).append(",\"salary\":");
+           appendCents(json, employee.calculateSalaryCents()).append('}');
+           send(exchange, 200, json);
+       }
+
+       private void sendSalaries(HttpExchange exchange, List<String> empIds) throws IOException {
+           if (empIds.size() > maxBatchSize) {
+               throw new BadRequestException(413, "At most " + maxBatchSize + " ids per request");
+           }
+           BatchResult salaries = system.getEmployeeSalaries(empIds.toArray(new String[0]));
+           StringBuilder json = new StringBuilder(16 + empIds.size() * 64).append("{\"salaries\":[");
+           for (int i = 0; i < empIds.size(); i++) {
+               json.append(i == 0 ? "{\"id\":" : ",{\"id\":");
+               appendString(json, empIds.get(i)).append(",\"salary\":");
+               if (salaries.isOk(i)) {
+                   appendCents(json, salaries.getSalaryCents(i));
+               } else {
+                   json.append("null");
+               }
+               json.append('}');
+           }
+           send(exchange, 200, json.append("]}"));
+       }
+
+       private void sendEmployees(HttpExchange exchange, Map<String, List<String>> query) throws IOException {
+           int limit = intParameter(query, "limit", Math.min(DEFAULT_LIMIT, maxBatchSize));
+           if (limit < 0 || limit > maxBatchSize) {
+               throw new BadRequestException(400, "limit must be between 0 and " + maxBatchSize);
+           }
+           Iterator<Employee> matches;
+           if (query.containsKey("type")) {
+               matches = system.iterateEmployeesByType(rosterType(parameter(query, "type")).getEmployeeType());
+           } else if (query.containsKey("hiredFrom") || query.containsKey("hiredTo")) {
+               LocalDate from = query.containsKey("hiredFrom") ? LocalDate.parse(parameter(query, "hiredFrom")) : LocalDate.MIN;
+               LocalDate to = query.containsKey("hiredTo") ? LocalDate.parse(parameter(query, "hiredTo")) : LocalDate.MAX;
+               matches = system.iterateEmployeesByHireDate(from, to);
+           } else if (query.containsKey("minSalary") || query.containsKey("maxSalary")) {
+               double min = query.containsKey("minSalary") ? Double.parseDouble(parameter(query, "minSalary")) : 0;
+               double max = query.containsKey("maxSalary") ? Double.parseDouble(parameter(query, "maxSalary")) : Double.MAX_VALUE;
+               matches = system.iterateEmployeesBySalary(min, max);
+           } else {
+               throw new BadRequestException(400, "Expected a type, hire date or salary filter");
+           }
+           StringBuilder json = new StringBuilder(32 + Math.min(limit, 1_000) * 128).append("{\"employees\":[");
+           int count = 0;
+           while (count < limit && matches.hasNext()) {
+               Employee employee = matches.next();
+               json.append(count == 0 ? "{\"id\":" : ",{\"id\":");
+               appendString(json, employee.getEmpId()).append(",\"name\":");
+               appendString(json, employee.getName()).append(",\"type\":");
+               appendString(json, employee.getClass().getSimpleName()).append(",\"salary\":");
+               appendCents(json, employee.calculateSalaryCents()).append(",\"hireDate\":\"");
+               json.append(employee.getHireDate()).append("\"}");
+               count++;
+           }
+           json.append("],\"count\":").append(count).append(",\"truncated\":").append(matches.hasNext()).append('}');
+           send(exchange, 200, json);
+       }
+
+       // Rebuilt only when the system has changed since the last one, so a burst of report requests
+       // costs one payroll pass. The count is read before the pass, so a change during the pass
+       // leaves the snapshot looking stale and the next request rebuilds it.
+       private byte[] reportBody() {
+           long modificationCount = system.getModificationCount();
+           ReportSnapshot cached = report;
+           if (cached != null && cached.modificationCount() == modificationCount) {
+               return cached.body();
+           }
+           PayrollSummary summary = system.streamPayroll((empId, name, type, salaryCents, hireDate) -> {
+           });
+           StringBuilder json = new StringBuilder(256);
+           json.append("{\"employeeCount\":").append(summary.getEmployeeCount());
+           json.append(",\"fullTimeCount\":").append(summary.getCount(FullTimeEmployee.class));
+           json.append(",\"contractCount\":").append(summary.getCount(ContractEmployee.class));
+           json.append(",\"dailyWageCount\":").append(summary.getCount(DailyWageEmployee.class));
+           json.append(",\"totalSalary\":");
+           appendCents(json, summary.getTotalSalaryCents());
+           json.append(",\"averageSalary\":").append(String.format(Locale.ROOT, "%.2f", summary.getAverageSalary())).append('}');
+           byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+           report = new ReportSnapshot(modificationCount, body);
+           return body;
+       }
+
+       private List<String> readIds(InputStream body) throws IOException {
+           ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+           byte[] chunk = new byte[8192];
+           int read;
+           while ((read = body.read(chunk)) > 0) {
+               if (buffer.size() + read > MAX_BODY_BYTES) {
+                   throw new BadRequestException(413, "Request body is larger than " + MAX_BODY_BYTES + " bytes");
+               }
+               buffer.write(chunk, 0, read);
+           }
+           List<String> empIds = new ArrayList<>();
+           for (String line : buffer.toString(StandardCharsets.UTF_8).split("\n")) {
+               String empId = line.trim();
+               if (!empId.isEmpty()) {
+                   empIds.add(empId);
+               }
+           }
+           return empIds;
+       }
+
+       private static RosterType rosterType(String value) {
+           for (RosterType type : RosterType.values()) {
+               if (type.name().equalsIgnoreCase(value.replace('-', '_').replace(' ', '_'))) {
+                   return type;
+               }
+           }
+           throw new IllegalArgumentException("Unknown employee type: " + value);
+       }
+
+       private static void requireMethod(String method, String expected) {
+           if (!method.equals(expected)) {
+               throw new BadRequestException(405, "Method " + method + " not allowed");
+           }
+       }
+
+       private static Map<String, List<String>> parseQuery(String rawQuery) {
+           Map<String, List<String>> parameters = new HashMap<>();
+           if (rawQuery == null || rawQuery.isEmpty()) {
+               return parameters;
+           }
+           for (String pair : rawQuery.split("&")) {
+               int eq = pair.indexOf('=');
+               String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+               String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+               parameters.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+           }
+           return parameters;
+       }
+
+       private static String parameter(Map<String, List<String>> query, String name) {
+           List<String> values = query.get(name);
+           return values == null ? null : values.get(0);
+       }
+
+       private static String requireParameter(Map<String, List<String>> query, String name) {
+           String value = parameter(query, name);
+           if (value == null || value.isEmpty()) {
+               throw new BadRequestException(400, "Missing parameter: " + name);
+           }
+           return value;
+       }
+
+       private static int intParameter(Map<String, List<String>> query, String name, int defaultValue) {
+           String value = parameter(query, name);
+           return value == null ? defaultValue : Integer.parseInt(value);
+       }
+
+       private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+           StringBuilder json = new StringBuilder(64).append("{\"error\":");
+           appendString(json, message == null ? "Bad request" : message).append('}');
+           send(exchange, status, json);
+       }
+
+       private static void send(HttpExchange exchange, int status, CharSequence json) throws IOException {
+           send(exchange, status, json.toString().getBytes(StandardCharsets.UTF_8));
+       }
+
+       private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+           exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+           exchange.sendResponseHeaders(status, body.length);
+           try (OutputStream out = exchange.getResponseBody()) {
+               out.write(body);
+           }
+       }
+
+       private static StringBuilder appendCents(StringBuilder json, long cents) {
+           if (cents < 0) {
+               json.append('-');
+           }
+           long units = Math.abs(cents / Money.CENTS_PER_UNIT);
+           int fraction = (int) Math.abs(cents % Money.CENTS_PER_UNIT);
+           return json.append(units).append('.').append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10));
+       }
+
+       private static StringBuilder appendString(StringBuilder json, String value) {
+           json.append('"');
+           for (int i = 0; i < value.length(); i++) {
+               char c = value.charAt(i);
+               switch (c) {
+                   case '"':
+                       json.append("\\\"");
+                       break;
+                   case '\\':
+                       json.append("\\\\");
+                       break;
+                   case '\n':
+                       json.append("\\n");
+                       break;
+                   case '\r':
+                       json.append("\\r");
+                       break;
+                   case '\t':
+                       json.append("\\t");
+                       break;
+                   default:
+                       if (c < 0x20) {
+                           json.append(String.format("\\u%04x", (int) c));
+                       } else {
+                           json.append(c);
+                       }
+               }
+           }
+           return json.append('"');
+       }
+   }
@@ -1,145 +1,1084 @@
 package CodingMaximaSrp;
 
+   import CodingMaximaSrp.MetricsRegistry.Operation;
    import java.time.LocalDate;
+   import java.time.Year;
+   import java.time.YearMonth;
    import java.util.*;
-   import java.io.FileWriter;
+   import java.util.concurrent.ConcurrentHashMap;
+   import java.util.concurrent.ForkJoinPool;
+   import java.util.concurrent.atomic.AtomicLong;
+   import java.util.concurrent.locks.Lock;
+   import java.util.concurrent.locks.LockSupport;
+   import java.util.concurrent.locks.ReadWriteLock;
+   import java.util.concurrent.locks.ReentrantReadWriteLock;
+   import java.util.function.BiConsumer;
+   import java.util.function.BinaryOperator;
+   import java.util.function.Predicate;
+   import java.util.function.Supplier;
+   import java.util.function.ToLongFunction;
    import java.io.IOException;
+   import java.io.UncheckedIOException;
+   import java.nio.channels.FileChannel;
+   import java.nio.file.Files;
+   import java.nio.file.Path;
+   import java.nio.file.Paths;
+   import java.nio.file.StandardOpenOption;
 
+   // Safe for concurrent use. Reads go straight to the concurrent maps, the skip-list indexes and each
+   // employee's immutable pay snapshot; writes lock only the emp_id they change. Full reports run
+   // optimistically and are retried if a write lands mid-scan, so they see one point in time;
+   // streamed exports make a single pass over the live roster instead.
+   // After recover(), every change made through this system is logged to a mutation journal;
+   // changes made directly on Employee objects are not.
    public class SalarySystem {
-       private Map<String, Employee> employees;
+       private static final int OPTIMISTIC_SCAN_ATTEMPTS = 4;
+       // A scan that lost the race to writers pauses up to this long before its next attempt
+       private static final long MAX_SCAN_BACKOFF_NANOS = 1_000_000;
+       private static final int WRITE_STRIPES = 64;
+       // Below this many employees a roster-wide scan runs on the calling thread
+       public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+       private final EmployeeIdMap employees = new EmployeeIdMap();
+       private final Map<Class<? extends Employee>, EmployeePartition> partitions = new ConcurrentHashMap<>();
+       private final SalaryListener salaryTracker = this::salaryChanged;
+       private final SalaryIndex salaryIndex = new SalaryIndex();
+       private final HireDateIndex hireDateIndex = new HireDateIndex();
+       private final NameIndex nameIndex = new NameIndex();
+       // Counts completed writes, bumped only once a change is fully visible
+       private final AtomicLong modifications = new AtomicLong();
+       // Shared by writers; taken exclusively by bulk changes, snapshots, restores and by a scan that
+       // keeps losing the optimistic race
+       private final ReadWriteLock scanLock = new ReentrantReadWriteLock();
+       // Writes to one emp_id are serialised on its stripe, so they reach the journal in the order applied
+       private final Object[] writeStripes = new Object[WRITE_STRIPES];
+       private final ParallelScan parallelScan;
+       private volatile MutationJournal journal;
+       private Path snapshotFile;
 
        public SalarySystem() {
-           this.employees = new HashMap<>();
+           this(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+       }
+
+       // Scans over at least parallelThreshold employees are split across the pool; 0 makes every
+       // scan parallel and Integer.MAX_VALUE none. Totals come out the same either way.
+       public SalarySystem(ForkJoinPool pool, int parallelThreshold) {
+           this.parallelScan = new ParallelScan(pool, parallelThreshold);
+           for (int i = 0; i < WRITE_STRIPES; i++) {
+               writeStripes[i] = new Object();
+           }
        }
 
+       // Safe to call from many loader threads at once
        public void addEmployees(List<Employee> employeeList) {
-           for (Employee emp : employeeList) {
-               employees.put(emp.getEmpId(), emp);
+           long start = Metrics.startTimer();
+           try {
+               long sequence = 0;
+               Lock shared = scanLock.readLock();
+               shared.lock();
+               try {
+                   MutationJournal log = journal;
+                   for (Employee emp : employeeList) {
+                       RosterType type = RosterType.forEmployee(emp);
+                       if (log != null && type == null) {
+                           throw new IllegalArgumentException("Employee " + emp.getEmpId() + " of type "
+                               + emp.getClass().getSimpleName() + " cannot be journaled");
+                       }
+                       synchronized (stripeFor(emp.getEmpId())) {
+                           Employee previous;
+                           synchronized (emp) { // Holds off the employee's own updates until it is fully indexed
+                               emp.attachSalaryListener(salaryTracker);
+                               previous = employees.put(emp.getEmpId(), emp);
+                               if (previous != emp) {
+                                   partitionOf(emp).add(emp);
+                                   salaryIndex.add(emp);
+                                   hireDateIndex.add(emp);
+                                   nameIndex.add(emp);
+                                   if (log != null) {
+                                       sequence = log.logAdd(emp, type);
+                                   }
+                               }
+                           }
+                           if (previous != null && previous != emp) {
+                               release(previous);
+                           }
+                       }
+                       modifications.incrementAndGet();
+                   }
+               } finally {
+                   shared.unlock();
+               }
+               awaitDurable(sequence);
+           } finally {
+               Metrics.recordOperation(Operation.ADD_EMPLOYEES, start);
            }
        }
 
        public String removeEmployee(String empId) {
-           if (employees.containsKey(empId)) {
-               Employee emp = employees.remove(empId);
+           long start = Metrics.startTimer();
+           try {
+               long sequence = 0;
+               Employee emp;
+               Lock shared = scanLock.readLock();
+               shared.lock();
+               try {
+                   synchronized (stripeFor(empId)) {
+                       emp = employees.remove(empId);
+                       if (emp != null) {
+                           release(emp);
+                           modifications.incrementAndGet();
+                           sequence = log(log -> log.logRemove(empId));
+                       }
+                   }
+               } finally {
+                   shared.unlock();
+               }
+               if (emp == null) {
+                   return "Employee " + empId + " not found";
+               }
+               awaitDurable(sequence);
                return "Employee " + emp.getName() + " removed";
+           } finally {
+               Metrics.recordOperation(Operation.REMOVE_EMPLOYEE, start);
+           }
+       }
+
+       public double getTotalSalary() {
+           return Money.toDouble(getTotalSalaryCents());
+       }
+
+       public long getTotalSalaryCents() {
+           return getTotalSalaryCents(Employee.class);
+       }
+
+       // O(number of employee classes), read from the per-type running aggregates
+       public long getTotalSalaryCents(Class<? extends Employee> employeeType) {
+           long total = 0;
+           for (EmployeePartition partition : partitions.values()) {
+               if (partition.isPartOf(employeeType)) {
+                   total = Money.add(total, partition.getTotalSalaryCents());
+               }
            }
-           return "Employee " + empId + " not found";
+           return total;
+       }
+
+       public int countEmployeesByType(Class<? extends Employee> employeeType) {
+           int count = 0;
+           for (EmployeePartition partition : partitions.values()) {
+               if (partition.isPartOf(employeeType)) {
+                   count += partition.size();
+               }
+           }
+           return count;
+       }
+
+       Employee getEmployee(String empId) {
+           return employees.get(empId);
+       }
+
+       // Changes whenever an employee or a salary changes; equal values mean nothing changed in between
+       long getModificationCount() {
+           return modifications.get();
        }
 
        public Double getEmployeeSalary(String empId) {
-           Employee employee = employees.get(empId);
-           return employee != null ? employee.calculateSalary() : null;
+           long start = Metrics.startTimer();
+           try {
+               Employee employee = employees.get(empId);
+               return employee != null ? employee.calculateSalary() : null;
+           } finally {
+               Metrics.recordOperation(Operation.GET_EMPLOYEE_SALARY, start);
+           }
        }
 
        public String applyIncrement(String empId, double incrementPercentage) {
-           Employee employee = employees.get(empId);
-           if (employee instanceof FullTimeEmployee) {
-               ((FullTimeEmployee) employee).applyAnnualIncrement(incrementPercentage);
-               return "Increment applied to " + employee.getName();
+           long start = Metrics.startTimer();
+           try {
+               JournaledWrite write = applyIncrementJournaled(empId, incrementPercentage);
+               if (!(write.employee() instanceof FullTimeEmployee)) {
+                   return "Increment only applicable to full-time employees";
+               }
+               awaitDurable(write.sequence());
+               return "Increment applied to " + write.employee().getName();
+           } finally {
+               Metrics.recordOperation(Operation.APPLY_INCREMENT, start);
+           }
+       }
+
+       // applyIncrement without waiting for the journal flush
+       JournaledWrite applyIncrementJournaled(String empId, double incrementPercentage) {
+           long sequence = 0;
+           Employee employee;
+           Lock shared = scanLock.readLock();
+           shared.lock();
+           try {
+               synchronized (stripeFor(empId)) {
+                   employee = employees.get(empId);
+                   if (employee instanceof FullTimeEmployee) {
+                       try {
+                           ((FullTimeEmployee) employee).applyAnnualIncrement(incrementPercentage);
+                       } finally {
+                           sequence = log(log -> log.logIncrement(empId, incrementPercentage));
+                       }
+                   }
+               }
+           } finally {
+               shared.unlock();
+           }
+           return new JournaledWrite(employee, sequence);
+       }
+
+       public String adjustSalary(String empId, double basicChange, double hraChange, double bonusChange) {
+           long start = Metrics.startTimer();
+           try {
+               return adjustSalaryCents(empId, Money.ofDouble(basicChange), Money.ofDouble(hraChange), Money.ofDouble(bonusChange));
+           } finally {
+               Metrics.recordOperation(Operation.ADJUST_SALARY, start);
+           }
+       }
+
+       String adjustSalaryCents(String empId, long basicChange, long hraChange, long bonusChange) {
+           JournaledWrite write = adjustSalaryJournaled(empId, basicChange, hraChange, bonusChange);
+           if (write.employee() == null) {
+               return "Employee " + empId + " not found";
+           }
+           awaitDurable(write.sequence());
+           return "Salary adjusted for " + write.employee().getName();
+       }
+
+       // adjustSalaryCents without waiting for the journal flush
+       JournaledWrite adjustSalaryJournaled(String empId, long basicChange, long hraChange, long bonusChange) {
+           long sequence = 0;
+           Employee employee;
+           Lock shared = scanLock.readLock();
+           shared.lock();
+           try {
+               synchronized (stripeFor(empId)) {
+                   employee = employees.get(empId);
+                   if (employee != null) {
+                       try {
+                           employee.adjustSalaryCents(basicChange, hraChange, bonusChange);
+                       } finally {
+                           sequence = log(log -> log.logAdjustSalary(empId, basicChange, hraChange, bonusChange));
+                       }
+                   }
+               }
+           } finally {
+               shared.unlock();
+           }
+           return new JournaledWrite(employee, sequence);
+       }
+
+       public String extendContract(String empId, int additionalMonths) {
+           long start = Metrics.startTimer();
+           try {
+               long sequence = 0;
+               Employee employee;
+               String result = null;
+               Lock shared = scanLock.readLock();
+               shared.lock();
+               try {
+                   synchronized (stripeFor(empId)) {
+                       employee = employees.get(empId);
+                       if (employee instanceof ContractEmployee) {
+                           result = ((ContractEmployee) employee).extendContract(additionalMonths);
+                           modifications.incrementAndGet(); // Not a salary change, but scans that project contract ends must see it
+                           sequence = log(log -> log.logExtendContract(empId, additionalMonths));
+                       }
+                   }
+               } finally {
+                   shared.unlock();
+               }
+               if (!(employee instanceof ContractEmployee)) {
+                   return "Contract extension only applicable to contract employees";
+               }
+               awaitDurable(sequence);
+               return result;
+           } finally {
+               Metrics.recordOperation(Operation.EXTEND_CONTRACT, start);
+           }
+       }
+
+       public String updateWorkingDays(String empId, int days) {
+           long start = Metrics.startTimer();
+           try {
+               JournaledWrite write = updateWorkingDaysJournaled(empId, days);
+               if (!(write.employee() instanceof DailyWageEmployee)) {
+                   return "Working days only applicable to daily wage employees";
+               }
+               awaitDurable(write.sequence());
+               return "Working days updated for " + write.employee().getName();
+           } finally {
+               Metrics.recordOperation(Operation.UPDATE_WORKING_DAYS, start);
+           }
+       }
+
+       // updateWorkingDays without waiting for the journal flush
+       JournaledWrite updateWorkingDaysJournaled(String empId, int days) {
+           long sequence = 0;
+           Employee employee;
+           Lock shared = scanLock.readLock();
+           shared.lock();
+           try {
+               synchronized (stripeFor(empId)) {
+                   employee = employees.get(empId);
+                   if (employee instanceof DailyWageEmployee) {
+                       ((DailyWageEmployee) employee).updateWorkingDays(days);
+                       sequence = log(log -> log.logUpdateWorkingDays(empId, days));
+                   }
+               }
+           } finally {
+               shared.unlock();
+           }
+           return new JournaledWrite(employee, sequence);
+       }
+
+       // Batch forms of getEmployeeSalary, applyIncrement and removeEmployee: one status code per
+       // emp_id, in request order, instead of a message each. Writes are grouped by write stripe so
+       // each stripe is locked once per batch, and large batches run the groups in parallel. A repeated
+       // emp_id is applied in request order. Journaled batches wait for a single flush at the end.
+       public BatchResult getEmployeeSalaries(String[] empIds) {
+           long start = Metrics.startTimer();
+           try {
+               BatchResult result = new BatchResult(empIds.length, true);
+               parallelScan.forEach(empIds.length, (none, from, to) -> {
+                   for (int i = from; i < to; i++) {
+                       Employee employee = employees.get(empIds[i]);
+                       if (employee == null) {
+                           result.setStatus(i, BatchResult.NOT_FOUND);
+                       } else {
+                           result.setSalaryCents(i, employee.calculateSalaryCents());
+                       }
+                   }
+               });
+               return result;
+           } finally {
+               Metrics.recordOperation(Operation.BATCH_GET_SALARIES, start);
            }
-           return "Increment only applicable to full-time employees";
        }
 
+       public BatchResult applyIncrements(String[] empIds, double incrementPercentage) {
+           double[] incrementPercentages = new double[empIds.length];
+           Arrays.fill(incrementPercentages, incrementPercentage);
+           return applyIncrements(empIds, incrementPercentages);
+       }
+
+       // Salaries in the result are the new ones. An entry rejected as INVALID is left unchanged and
+       // is not journaled.
+       public BatchResult applyIncrements(String[] empIds, double[] incrementPercentages) {
+           if (incrementPercentages.length != empIds.length) {
+               throw new IllegalArgumentException("Expected one increment percentage per employee");
+           }
+           long start = Metrics.startTimer();
+           try {
+               BatchResult result = new BatchResult(empIds.length, true);
+               long sequence = writeByStripe(empIds, i -> {
+                   String empId = empIds[i];
+                   double incrementPercentage = incrementPercentages[i];
+                   Employee employee = employees.get(empId);
+                   if (!(employee instanceof FullTimeEmployee)) {
+                       result.setStatus(i, employee == null ? BatchResult.NOT_FOUND : BatchResult.NOT_APPLICABLE);
+                       return 0;
+                   }
+                   try {
+                       ((FullTimeEmployee) employee).applyAnnualIncrementOrNothing(incrementPercentage);
+                       result.setSalaryCents(i, employee.calculateSalaryCents());
+                   } catch (IllegalArgumentException e) {
+                       result.setStatus(i, BatchResult.INVALID);
+                       return 0; // Nothing was changed, so there is nothing to journal
+                   }
+                   return log(log -> log.logIncrement(empId, incrementPercentage));
+               });
+               awaitDurable(sequence);
+               return result;
+           } finally {
+               Metrics.recordOperation(Operation.BATCH_APPLY_INCREMENTS, start);
+           }
+       }
+
+       public BatchResult removeEmployees(String[] empIds) {
+           long start = Metrics.startTimer();
+           try {
+               BatchResult result = new BatchResult(empIds.length, false);
+               long sequence = writeByStripe(empIds, i -> {
+                   String empId = empIds[i];
+                   Employee emp = employees.remove(empId);
+                   if (emp == null) {
+                       result.setStatus(i, BatchResult.NOT_FOUND);
+                       return 0;
+                   }
+                   release(emp);
+                   modifications.incrementAndGet();
+                   return log(log -> log.logRemove(empId));
+               });
+               awaitDurable(sequence);
+               return result;
+           } finally {
+               Metrics.recordOperation(Operation.BATCH_REMOVE_EMPLOYEES, start);
+           }
+       }
+
+       // Touches only the partitions of matching employee classes. Every change is checked before any
+       // is applied, so the adjustment lands on all matching employees or on none.
        public void bulkSalaryAdjustment(Class<? extends Employee> employeeType, double basicChange, double hraChange, double bonusChange) {
-           for (Employee emp : employees.values()) {
-               if (employeeType.isInstance(emp)) {
-                   emp.adjustSalary(basicChange, hraChange, bonusChange);
+           long start = Metrics.startTimer();
+           try {
+               bulkSalaryAdjustmentCents(employeeType, Money.ofDouble(basicChange), Money.ofDouble(hraChange), Money.ofDouble(bonusChange));
+           } finally {
+               Metrics.recordOperation(Operation.BULK_SALARY_ADJUSTMENT, start);
+           }
+       }
+
+       void bulkSalaryAdjustmentCents(Class<? extends Employee> employeeType, long basicChange, long hraChange, long bonusChange) {
+           awaitDurable(bulkSalaryAdjustmentJournaled(employeeType, basicChange, hraChange, bonusChange));
+       }
+
+       // bulkSalaryAdjustmentCents without waiting for the journal flush; returns the journal sequence
+       long bulkSalaryAdjustmentJournaled(Class<? extends Employee> employeeType, long basicChange, long hraChange, long bonusChange) {
+           long sequence;
+           Lock exclusive = scanLock.writeLock(); // A bulk change is logged as one record, so no other writes may interleave
+           exclusive.lock();
+           try {
+               List<Employee> matching = new ArrayList<>();
+               for (EmployeePartition partition : partitions.values()) {
+                   if (partition.isPartOf(employeeType)) {
+                       matching.addAll(partition.members());
+                   }
                }
+               Employee[] targets = matching.toArray(new Employee[0]);
+               parallelScan.forEach(targets.length, (none, from, to) -> {
+                   for (int i = from; i < to; i++) {
+                       targets[i].validateAdjustmentCents(basicChange, hraChange, bonusChange);
+                   }
+               });
+               parallelScan.forEach(targets.length, (none, from, to) -> {
+                   for (int i = from; i < to; i++) {
+                       targets[i].adjustSalaryCents(basicChange, hraChange, bonusChange);
+                   }
+               });
+               sequence = log(log -> log.logBulkAdjustment(employeeType, basicChange, hraChange, bonusChange));
+           } finally {
+               exclusive.unlock();
            }
+           return sequence;
        }
 
        public List<Employee> filterEmployeesBySalary(double minSalary, double maxSalary) {
-           List<Employee> filtered = new ArrayList<>();
-           for (Employee emp : employees.values()) {
-               double salary = emp.calculateSalary();
-               if (salary >= minSalary && salary <= maxSalary) {
-                   filtered.add(emp);
+           long start = Metrics.startTimer();
+           try {
+               if (Double.isNaN(minSalary) || Double.isNaN(maxSalary)) {
+                   return new ArrayList<>();
                }
+               return salaryIndex.range(lowestCentsAtLeast(minSalary), highestCentsAtMost(maxSalary));
+           } finally {
+               Metrics.recordOperation(Operation.FILTER_BY_SALARY, start);
+           }
+       }
+
+       public List<Employee> getTopEarners(int count) {
+           long start = Metrics.startTimer();
+           try {
+               return salaryIndex.highest(count);
+           } finally {
+               Metrics.recordOperation(Operation.TOP_EARNERS, start);
+           }
+       }
+
+       public List<Employee> getBottomEarners(int count) {
+           long start = Metrics.startTimer();
+           try {
+               return salaryIndex.lowest(count);
+           } finally {
+               Metrics.recordOperation(Operation.BOTTOM_EARNERS, start);
            }
-           return filtered;
        }
 
        public List<Employee> filterEmployeesByType(Class<? extends Employee> employeeType) {
-           List<Employee> filtered = new ArrayList<>();
-           for (Employee emp : employees.values()) {
-               if (employeeType.isInstance(emp)) {
-                   filtered.add(emp);
+           long start = Metrics.startTimer();
+           try {
+               List<Employee> filtered = new ArrayList<>();
+               for (EmployeePartition partition : partitions.values()) {
+                   if (partition.isPartOf(employeeType)) {
+                       filtered.addAll(partition.members());
+                   }
                }
+               return filtered;
+           } finally {
+               Metrics.recordOperation(Operation.FILTER_BY_TYPE, start);
            }
-           return filtered;
        }
 
+       // Ordered by hire date, then emp_id
        public List<Employee> filterEmployeesByHireDate(LocalDate startDate, LocalDate endDate) {
-           List<Employee> filtered = new ArrayList<>();
-           for (Employee emp : employees.values()) {
-               LocalDate hireDate = emp.getHireDate();
-               if (!hireDate.isBefore(startDate) && !hireDate.isAfter(endDate)) {
-                   filtered.add(emp);
+           long start = Metrics.startTimer();
+           try {
+               return hireDateIndex.range(startDate, endDate);
+           } finally {
+               Metrics.recordOperation(Operation.FILTER_BY_HIRE_DATE, start);
+           }
+       }
+
+       // Ad-hoc filters that no index covers; tests every employee, in parallel on large rosters.
+       // The predicate may be called from several threads at once.
+       public List<Employee> filterEmployees(Predicate<? super Employee> filter) {
+           long start = Metrics.startTimer();
+           try {
+               Employee[] all = employees.values().toArray(new Employee[0]);
+               return parallelScan.reduce(all.length, ArrayList::new, (List<Employee> matches, int from, int to) -> {
+                   for (int i = from; i < to; i++) {
+                       if (filter.test(all[i])) {
+                           matches.add(all[i]);
+                       }
+                   }
+               }, (left, right) -> {
+                   left.addAll(right);
+                   return left;
+               });
+           } finally {
+               Metrics.recordOperation(Operation.FILTER_BY_PREDICATE, start);
+           }
+       }
+
+       // Streams the same employees as filterEmployeesByType without building a list, one partition
+       // at a time
+       public Iterator<Employee> iterateEmployeesByType(Class<? extends Employee> employeeType) {
+           List<EmployeePartition> parts = new ArrayList<>();
+           for (EmployeePartition partition : partitions.values()) {
+               if (partition.isPartOf(employeeType)) {
+                   parts.add(partition);
+               }
+           }
+           Iterator<EmployeePartition> matching = parts.iterator();
+           return new Iterator<>() {
+               private Iterator<Employee> current = Collections.emptyIterator();
+
+               @Override
+               public boolean hasNext() {
+                   while (!current.hasNext() && matching.hasNext()) {
+                       current = matching.next().members().iterator();
+                   }
+                   return current.hasNext();
+               }
+
+               @Override
+               public Employee next() {
+                   if (!hasNext()) {
+                       throw new NoSuchElementException();
+                   }
+                   return current.next();
                }
+           };
+       }
+
+       // Streams the same employees as filterEmployeesBySalary without building a list
+       public Iterator<Employee> iterateEmployeesBySalary(double minSalary, double maxSalary) {
+           if (Double.isNaN(minSalary) || Double.isNaN(maxSalary)) {
+               return Collections.emptyIterator();
            }
-           return filtered;
+           return salaryIndex.iterator(lowestCentsAtLeast(minSalary), highestCentsAtMost(maxSalary));
+       }
+
+       // Streams the same employees as filterEmployeesByHireDate without building a list
+       public Iterator<Employee> iterateEmployeesByHireDate(LocalDate startDate, LocalDate endDate) {
+           return hireDateIndex.iterator(startDate, endDate);
        }
 
+       public int countEmployeesHiredBetween(LocalDate startDate, LocalDate endDate) {
+           return hireDateIndex.count(startDate, endDate);
+       }
+
+       public SortedMap<Year, Integer> countHiresByYear(LocalDate startDate, LocalDate endDate) {
+           return hireDateIndex.countByYear(startDate, endDate);
+       }
+
+       public SortedMap<YearMonth, Integer> countHiresByMonth(LocalDate startDate, LocalDate endDate) {
+           return hireDateIndex.countByMonth(startDate, endDate);
+       }
+
+       // Ties are broken by emp_id
        public List<Employee> sortEmployeesBySalary(boolean ascending) {
-           List<Employee> sorted = new ArrayList<>(employees.values());
-           sorted.sort((e1, e2) -> {
-               double diff = e1.calculateSalary() - e2.calculateSalary();
-               return ascending ? (int) (diff * 100) : (int) (-diff * 100);
-           });
-           return sorted;
+           long start = Metrics.startTimer();
+           try {
+               return ascending ? salaryIndex.ascending() : salaryIndex.descending();
+           } finally {
+               Metrics.recordOperation(Operation.SORT_BY_SALARY, start);
+           }
        }
 
+       // Case-insensitive name order; ties are broken by exact name, then emp_id
        public List<Employee> sortEmployeesByName() {
-           List<Employee> sorted = new ArrayList<>(employees.values());
-           sorted.sort(Comparator.comparing(Employee::getName));
-           return sorted;
+           long start = Metrics.startTimer();
+           try {
+               return nameIndex.all();
+           } finally {
+               Metrics.recordOperation(Operation.SORT_BY_NAME, start);
+           }
+       }
+
+       // Next pageSize employees in sortEmployeesByName order after the given one, which need not
+       // still be on the roster; null starts from the first page
+       public List<Employee> pageEmployeesByName(Employee after, int pageSize) {
+           long start = Metrics.startTimer();
+           try {
+               return nameIndex.page(after, pageSize);
+           } finally {
+               Metrics.recordOperation(Operation.PAGE_BY_NAME, start);
+           }
+       }
+
+       // Case-insensitive exact match
+       public List<Employee> findEmployeesByName(String name) {
+           long start = Metrics.startTimer();
+           try {
+               return nameIndex.exact(name);
+           } finally {
+               Metrics.recordOperation(Operation.FIND_BY_NAME, start);
+           }
+       }
+
+       // Case-insensitive, in name order
+       public List<Employee> findEmployeesByNamePrefix(String prefix, int limit) {
+           long start = Metrics.startTimer();
+           try {
+               return nameIndex.prefix(prefix, limit);
+           } finally {
+               Metrics.recordOperation(Operation.FIND_BY_NAME_PREFIX, start);
+           }
+       }
+
+       // Names within maxEdits typos of the query, as a whole or by a single word, closest first
+       public List<Employee> findEmployeesBySimilarName(String name, int maxEdits, int limit) {
+           long start = Metrics.startTimer();
+           try {
+               return nameIndex.similar(name, maxEdits, limit);
+           } finally {
+               Metrics.recordOperation(Operation.FIND_BY_SIMILAR_NAME, start);
+           }
        }
 
        public Map<String, Object> generatePayrollReport() {
-           Map<String, Object> report = new HashMap<>();
-           List<Map<String, Object>> payroll = new ArrayList<>();
-           double totalSalary = 0.0;
-           int fullTimeCount = 0, contractCount = 0, dailyWageCount = 0;
+           long start = Metrics.startTimer();
+           try {
+               Map<String, Object> report = new HashMap<>();
+               PayrollCapture capture = consistentScan(this::capturePayroll);
+               PayrollSummary summary = summarize(capture);
+
+               // Filled in place by index, so rows keep capture order whichever thread builds them
+               List<Map<String, Object>> payroll = new ArrayList<>(Collections.nCopies(capture.size, null));
+               parallelScan.forEach(capture.size, (none, from, to) -> {
+                   for (int i = from; i < to; i++) {
+                       Employee emp = capture.employees[i];
+                       Map<String, Object> entry = new HashMap<>();
+                       entry.put("id", emp.getEmpId());
+                       entry.put("name", emp.getName());
+                       entry.put("salary", Money.toDouble(capture.salaryCents[i]));
+                       entry.put("type", emp.getClass().getSimpleName());
+                       entry.put("hireDate", emp.getHireDate().toString());
+                       payroll.set(i, entry);
+                   }
+               });
+
+               report.put("payroll", payroll);
+               report.put("totalSalary", summary.getTotalSalary());
+               report.put("employeeCount", summary.getEmployeeCount());
+               report.put("fullTimeCount", summary.getCount(FullTimeEmployee.class));
+               report.put("contractCount", summary.getCount(ContractEmployee.class));
+               report.put("dailyWageCount", summary.getCount(DailyWageEmployee.class));
+               report.put("averageSalary", summary.getAverageSalary());
+
+               return report;
+           } finally {
+               Metrics.recordOperation(Operation.PAYROLL_REPORT, start);
+           }
+       }
+
+       // Pushes one row per employee to the sink and totals the same rows as it goes, in one pass that
+       // keeps nothing per row. The roster is listed as of one moment, but each salary is read as its
+       // row is pushed, so a write during the pass may or may not show; the totals always match the
+       // rows. generatePayrollReport gives one point in time instead, at O(n) extra memory.
+       public PayrollSummary streamPayroll(PayrollSink sink) {
+           long start = Metrics.startTimer();
+           try {
+               PayrollSummary summary = new PayrollSummary();
+               for (Employee emp : employees.values()) {
+                   long salaryCents = emp.calculateSalaryCents();
+                   sink.accept(emp.getEmpId(), emp.getName(), emp.getClass(), salaryCents, emp.getHireDate());
+                   summary.accept(emp.getEmpId(), emp.getName(), emp.getClass(), salaryCents, emp.getHireDate());
+               }
+               return summary;
+           } finally {
+               Metrics.recordOperation(Operation.STREAM_PAYROLL, start);
+           }
+       }
+
+       public void exportPayrollToCsv(String filename) throws IOException {
+           exportPayrollToCsv(Paths.get(filename), false);
+       }
+
+       // Replaces the file atomically once every row is written; on failure the old file is left as it was
+       public PayrollSummary exportPayrollToCsv(Path file, boolean gzip) throws IOException {
+           long start = Metrics.startTimer();
+           try {
+               try (PayrollCsvWriter writer = PayrollCsvWriter.open(file, gzip)) {
+                   PayrollSummary summary = streamPayroll(writer);
+                   writer.commit();
+                   Metrics.recordExport(summary.getEmployeeCount(), writer.getBytesWritten(), start);
+                   return summary;
+               } catch (UncheckedIOException e) {
+                   throw e.getCause();
+               }
+           } finally {
+               Metrics.recordOperation(Operation.EXPORT_PAYROLL, start);
+           }
+       }
+
+       // Saves every employee with its current pay state, including changes made since import.
+       // The snapshot reflects one point in time and replaces the file atomically.
+       public int saveSnapshot(Path file) throws IOException {
+           long start = Metrics.startTimer();
+           try {
+               if (journal == null) {
+                   return writeSnapshot(file, 0, true);
+               }
+               // Journaled changes are applied before they are logged, so pin the sequence with writers held off
+               Lock exclusive = scanLock.writeLock();
+               exclusive.lock();
+               try {
+                   MutationJournal log = journal;
+                   return writeSnapshot(file, log != null ? log.sync() : 0, false);
+               } finally {
+                   exclusive.unlock();
+               }
+           } finally {
+               Metrics.recordOperation(Operation.SAVE_SNAPSHOT, start);
+           }
+       }
+
+       // Adds the employees of a snapshot written by saveSnapshot; returns how many were loaded
+       public int loadSnapshot(Path file) throws IOException {
+           long start = Metrics.startTimer();
+           try {
+               return RosterSnapshot.read(file, this).employees();
+           } finally {
+               Metrics.recordOperation(Operation.LOAD_SNAPSHOT, start);
+           }
+       }
 
+       // Rebuilds state from the snapshot, if there is one, plus the journal records written after it,
+       // then logs every later change made through this system to the journal. Returns the number of
+       // mutations replayed.
+       public int recover(Path snapshotFile, Path journalFile) throws IOException {
+           long start = Metrics.startTimer();
+           try {
+               Lock exclusive = scanLock.writeLock();
+               exclusive.lock();
+               try {
+                   if (journal != null) {
+                       throw new IllegalStateException("Mutation journal is already open");
+                   }
+                   long sequence = Files.exists(snapshotFile) ? RosterSnapshot.read(snapshotFile, this).journalSequence() : 0;
+                   MutationJournal opened = MutationJournal.open(journalFile, sequence, this);
+                   this.snapshotFile = snapshotFile;
+                   this.journal = opened;
+                   return opened.getReplayedCount();
+               } finally {
+                   exclusive.unlock();
+               }
+           } finally {
+               Metrics.recordOperation(Operation.RECOVER, start);
+           }
+       }
+
+       // Folds the journal into a new snapshot baseline and empties it
+       public void compactJournal() throws IOException {
+           Lock exclusive = scanLock.writeLock();
+           exclusive.lock();
+           try {
+               MutationJournal log = journal;
+               if (log == null) {
+                   throw new IllegalStateException("No mutation journal is open");
+               }
+               writeSnapshot(snapshotFile, log.sync(), false);
+               log.truncate();
+           } finally {
+               exclusive.unlock();
+           }
+       }
+
+       public void closeJournal() throws IOException {
+           Lock exclusive = scanLock.writeLock();
+           exclusive.lock();
+           try {
+               MutationJournal log = journal;
+               journal = null;
+               if (log != null) {
+                   log.close();
+               }
+           } finally {
+               exclusive.unlock();
+           }
+       }
+
+       private int writeSnapshot(Path file, long journalSequence, boolean optimistic) throws IOException {
+           Path tempFile = AtomicFiles.createTempSibling(file);
+           try {
+               int saved;
+               try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                   if (optimistic) {
+                       saved = consistentScan(() -> {
+                           try {
+                               return RosterSnapshot.write(employees.values(), channel, journalSequence);
+                           } catch (IOException e) {
+                               throw new UncheckedIOException(e);
+                           }
+                       });
+                   } else {
+                       saved = RosterSnapshot.write(employees.values(), channel, journalSequence);
+                   }
+                   channel.force(true);
+               } catch (UncheckedIOException e) {
+                   throw e.getCause();
+               }
+               AtomicFiles.moveIntoPlace(tempFile, file);
+               return saved;
+           } finally {
+               Files.deleteIfExists(tempFile);
+           }
+       }
+
+       // Totals are sums of whole cents, so per-chunk summaries merge to exactly the sequential result
+       private PayrollSummary summarize(PayrollCapture capture) {
+           return parallelScan.reduce(capture.size, PayrollSummary::new, (summary, from, to) -> {
+               for (int i = from; i < to; i++) {
+                   Employee emp = capture.employees[i];
+                   summary.accept(emp.getEmpId(), emp.getName(), emp.getClass(), capture.salaryCents[i], emp.getHireDate());
+               }
+           }, PayrollSummary::merge);
+       }
+
+       private PayrollCapture capturePayroll() {
+           PayrollCapture capture = new PayrollCapture(employees.size());
            for (Employee emp : employees.values()) {
-               Map<String, Object> entry = new HashMap<>();
-               entry.put("id", emp.getEmpId());
-               entry.put("name", emp.getName());
-               entry.put("salary", emp.calculateSalary());
-               entry.put("type", emp.getClass().getSimpleName());
-               entry.put("hireDate", emp.getHireDate().toString());
-               payroll.add(entry);
-               totalSalary += emp.calculateSalary();
-               if (emp instanceof FullTimeEmployee) fullTimeCount++;
-               else if (emp instanceof ContractEmployee) contractCount++;
-               else if (emp instanceof DailyWageEmployee) dailyWageCount++;
-           }
-
-           report.put("payroll", payroll);
-           report.put("totalSalary", Math.round(totalSalary * 100.0) / 100.0);
-           report.put("employeeCount", employees.size());
-           report.put("fullTimeCount", fullTimeCount);
-           report.put("contractCount", contractCount);
-           report.put("dailyWageCount", dailyWageCount);
-           report.put("averageSalary", employees.isEmpty() ? 0 : Math.round((totalSalary / employees.size()) * 100.0) / 100.0);
-
-           return report;
-       }
-
-       public void exportPayrollToCsv(String filename) {
-           Map<String, Object> report = generatePayrollReport();
-           @SuppressWarnings("unchecked")
-           List<Map<String, Object>> payroll = (List<Map<String, Object>>) report.get("payroll");
-
-           try (FileWriter writer = new FileWriter(filename)) {
-               writer.append("ID,Name,Type,Salary,Hire Date\n");
-               for (Map<String, Object> entry : payroll) {
-                   writer.append(String.format("%s,%s,%s,%.2f,%s\n",
-                       entry.get("id"), entry.get("name"), entry.get("type"),
-                       (Double) entry.get("salary"), entry.get("hireDate")));
-               }
-           } catch (IOException e) {
-               System.err.println("Error writing to CSV: " + e.getMessage());
+               capture.add(emp, emp.calculateSalaryCents());
            }
+           return capture;
+       }
+
+       // Starts an empty what-if scenario over this roster
+       public PayrollScenario newScenario() {
+           return new PayrollScenario(this);
+       }
+
+       // Payroll for each of the given number of months from startMonth, at most 60, with full-time
+       // employees getting annualIncrementPercentage on each hire anniversary and daily-wage employees
+       // keeping their current working days
+       public PayrollProjection projectPayroll(YearMonth startMonth, int months, double annualIncrementPercentage) {
+           return projectPayroll(startMonth, months, annualIncrementPercentage, null);
+       }
+
+       // As above, with daily-wage employees working workingDaysByMonth[i] days in the i-th month
+       public PayrollProjection projectPayroll(YearMonth startMonth, int months, double annualIncrementPercentage,
+                                               int[] workingDaysByMonth) {
+           long start = Metrics.startTimer();
+           try {
+               return PayrollProjection.project(this, startMonth, months, annualIncrementPercentage,
+                   workingDaysByMonth == null ? null : workingDaysByMonth.clone());
+           } finally {
+               Metrics.recordOperation(Operation.PROJECT_PAYROLL, start);
+           }
+       }
+
+       // Visits every employee once as of one point in time, split across the pool on large rosters
+       <A> A scanEmployees(Supplier<A> newAccumulator, BiConsumer<A, Employee> visit, BinaryOperator<A> merge) {
+           return consistentScan(() -> {
+               Employee[] all = employees.values().toArray(new Employee[0]);
+               return parallelScan.reduce(all.length, newAccumulator, (A accumulator, int from, int to) -> {
+                   for (int i = from; i < to; i++) {
+                       visit.accept(accumulator, all[i]);
+                   }
+               }, merge);
+           });
+       }
+
+       // Runs the action with every other writer and scan through this system held off; the action
+       // may itself call this system's writers
+       <T> T exclusively(Supplier<T> action) {
+           Lock exclusive = scanLock.writeLock();
+           exclusive.lock();
+           try {
+               return action.get();
+           } finally {
+               exclusive.unlock();
+           }
+       }
+
+       // Each map entry and each pay snapshot changes atomically and a write is counted only once it
+       // is visible, so a scan during which the count did not move matches one point in time. A scan
+       // that lost the race retries after a growing pause; after a few lost races it runs once more
+       // with writers through this system held off, so steady write traffic cannot starve it.
+       private <T> T consistentScan(Supplier<T> scan) {
+           long backoffNanos = 1_000;
+           for (int attempt = 0; attempt < OPTIMISTIC_SCAN_ATTEMPTS; attempt++) {
+               long before = modifications.get();
+               T result = scan.get();
+               if (modifications.get() == before) {
+                   return result;
+               }
+               LockSupport.parkNanos(backoffNanos);
+               backoffNanos = Math.min(backoffNanos * 2, MAX_SCAN_BACKOFF_NANOS);
+           }
+           Lock exclusive = scanLock.writeLock();
+           exclusive.lock();
+           try {
+               return scan.get();
+           } finally {
+               exclusive.unlock();
+           }
+       }
+
+       // Employees and their salaries as seen by one scan, held in parallel arrays
+       private static class PayrollCapture {
+           private Employee[] employees;
+           private long[] salaryCents;
+           private int size;
+
+           PayrollCapture(int expectedSize) {
+               employees = new Employee[Math.max(expectedSize, 16)];
+               salaryCents = new long[employees.length];
+           }
+
+           void add(Employee emp, long salary) {
+               if (size == employees.length) {
+                   employees = Arrays.copyOf(employees, size * 2);
+                   salaryCents = Arrays.copyOf(salaryCents, size * 2);
+               }
+               employees[size] = emp;
+               salaryCents[size] = salary;
+               size++;
+           }
+       }
+
+       private Object stripeFor(String empId) {
+           return writeStripes[stripeIndex(empId)];
+       }
+
+       private static int stripeIndex(String empId) {
+           int hash = empId.hashCode();
+           return (hash ^ (hash >>> 16)) & (WRITE_STRIPES - 1);
+       }
+
+       // The employee a single write found under its stripe lock, or null, and the journal sequence
+       // it logged, or 0
+       record JournaledWrite(Employee employee, long sequence) {
+       }
+
+       // Writes one batch entry with its stripe held; returns the journal sequence logged, or 0
+       @FunctionalInterface
+       private interface BatchWrite {
+           long apply(int index);
+       }
+
+       // Applies write to every index of the batch, one stripe at a time; returns the highest sequence logged
+       private long writeByStripe(String[] empIds, BatchWrite write) {
+           int[][] groups = groupByStripe(empIds);
+           long[] sequence = parallelScan.reduce(WRITE_STRIPES, empIds.length, 1, () -> new long[1], (highest, from, to) -> {
+               for (int stripe = from; stripe < to; stripe++) {
+                   highest[0] = Math.max(highest[0], writeStripe(stripe, groups[stripe], write));
+               }
+           }, (left, right) -> left[0] >= right[0] ? left : right);
+           return sequence[0];
+       }
+
+       private long writeStripe(int stripe, int[] indexes, BatchWrite write) {
+           if (indexes.length == 0) {
+               return 0;
+           }
+           long sequence = 0;
+           Lock shared = scanLock.readLock();
+           shared.lock();
+           try {
+               synchronized (writeStripes[stripe]) {
+                   for (int index : indexes) {
+                       sequence = Math.max(sequence, write.apply(index));
+                   }
+               }
+           } finally {
+               shared.unlock();
+           }
+           return sequence;
+       }
+
+       // Batch indexes bucketed by write stripe, each bucket in request order
+       private static int[][] groupByStripe(String[] empIds) {
+           int[] stripes = new int[empIds.length];
+           int[] counts = new int[WRITE_STRIPES];
+           for (int i = 0; i < empIds.length; i++) {
+               stripes[i] = stripeIndex(empIds[i]);
+               counts[stripes[i]]++;
+           }
+           int[][] groups = new int[WRITE_STRIPES][];
+           for (int stripe = 0; stripe < WRITE_STRIPES; stripe++) {
+               groups[stripe] = new int[counts[stripe]];
+               counts[stripe] = 0;
+           }
+           for (int i = 0; i < empIds.length; i++) {
+               groups[stripes[i]][counts[stripes[i]]++] = i;
+           }
+           return groups;
+       }
+
+       // Returns the journal sequence of the logged record, or 0 when no journal is open
+       private long log(ToLongFunction<MutationJournal> record) {
+           MutationJournal log = journal;
+           return log != null ? record.applyAsLong(log) : 0;
+       }
+
+       // Called once the write's locks are released, so concurrent writers share one flush
+       void awaitDurable(long sequence) {
+           MutationJournal log = journal;
+           if (sequence > 0 && log != null) {
+               log.awaitDurable(sequence);
+           }
+       }
+
+       private EmployeePartition partitionOf(Employee emp) {
+           return partitions.computeIfAbsent(emp.getClass(), EmployeePartition::new);
+       }
+
+       private void release(Employee emp) {
+           synchronized (emp) {
+               emp.detachSalaryListener(salaryTracker);
+               partitionOf(emp).remove(emp);
+               salaryIndex.remove(emp, emp.calculateSalaryCents());
+               hireDateIndex.remove(emp);
+               nameIndex.remove(emp);
+           }
+       }
+
+       // Runs on the writing thread while it holds the employee's monitor
+       private void salaryChanged(Employee emp, long oldSalaryCents, long newSalaryCents) {
+           partitionOf(emp).salaryChanged(oldSalaryCents, newSalaryCents);
+           salaryIndex.update(emp, oldSalaryCents, newSalaryCents);
+           modifications.incrementAndGet();
+       }
+
+       // Smallest whole-cent salary s with s / 100.0 >= amount, matching the old double comparison
+       static long lowestCentsAtLeast(double amount) {
+           if (amount <= Long.MIN_VALUE / (double) Money.CENTS_PER_UNIT) return Long.MIN_VALUE;
+           if (amount >= Long.MAX_VALUE / (double) Money.CENTS_PER_UNIT) return Long.MAX_VALUE;
+           long cents = (long) Math.ceil(amount * Money.CENTS_PER_UNIT);
+           while (Money.toDouble(cents - 1) >= amount) cents--;
+           while (Money.toDouble(cents) < amount) cents++;
+           return cents;
+       }
+
+       // Largest whole-cent salary s with s / 100.0 <= amount
+       static long highestCentsAtMost(double amount) {
+           if (amount >= Long.MAX_VALUE / (double) Money.CENTS_PER_UNIT) return Long.MAX_VALUE;
+           if (amount <= Long.MIN_VALUE / (double) Money.CENTS_PER_UNIT) return Long.MIN_VALUE;
+           long cents = (long) Math.floor(amount * Money.CENTS_PER_UNIT);
+           while (Money.toDouble(cents + 1) <= amount) cents++;
+           while (Money.toDouble(cents) > amount) cents--;
+           return cents;
        }
    }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package CodingMaximaSrp;
+
+   // One row at a time through the subclasses' own salary formulas
+   final class ScalarPayrollKernel implements PayrollKernel {
+       static final ScalarPayrollKernel INSTANCE = new ScalarPayrollKernel();
+
+       private ScalarPayrollKernel() {
+       }
+
+       @Override
+       public long fullTime(Columns in, int from, int to, Output out) {
+           long total = 0;
+           for (int row = from; row < to; row++) {
+               total = Money.add(total, out.accept(row,
+                   FullTimeEmployee.salaryCents(in.basicPay()[row], in.hra()[row], in.bonus()[row], in.rate()[row])));
+           }
+           return total;
+       }
+
+       @Override
+       public long contract(Columns in, int from, int to, Output out) {
+           long total = 0;
+           for (int row = from; row < to; row++) {
+               total = Money.add(total, out.accept(row, ContractEmployee.salaryCents(in.basicPay()[row], in.hra()[row])));
+           }
+           return total;
+       }
+
+       @Override
+       public long dailyWage(Columns in, int from, int to, Output out) {
+           long total = 0;
+           for (int row = from; row < to; row++) {
+               total = Money.add(total, out.accept(row, DailyWageEmployee.salaryCents(in.rate()[row], in.units()[row], in.bonus()[row])));
+           }
+           return total;
+       }
+   }
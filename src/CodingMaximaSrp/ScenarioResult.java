@@ -0,0 +1,44 @@
+package CodingMaximaSrp;
+
+   // Payroll before and after a scenario's steps, taken from the same scan of the roster
+   public class ScenarioResult {
+       private final PayrollSummary before;
+       private final PayrollSummary after;
+       private final int changedCount;
+
+       ScenarioResult(PayrollSummary before, PayrollSummary after, int changedCount) {
+           this.before = before;
+           this.after = after;
+           this.changedCount = changedCount;
+       }
+
+       public PayrollSummary getBefore() {
+           return before;
+       }
+
+       public PayrollSummary getAfter() {
+           return after;
+       }
+
+       // Employees whose salary the steps would change
+       public int getChangedCount() {
+           return changedCount;
+       }
+
+       public long getDeltaCents() {
+           return Money.subtract(after.getTotalSalaryCents(), before.getTotalSalaryCents());
+       }
+
+       public double getDelta() {
+           return Money.toDouble(getDeltaCents());
+       }
+
+       // Counts subclasses towards their parent types, as PayrollSummary does
+       public long getDeltaCents(Class<? extends Employee> employeeType) {
+           return Money.subtract(after.getTotalSalaryCents(employeeType), before.getTotalSalaryCents(employeeType));
+       }
+
+       public double getDelta(Class<? extends Employee> employeeType) {
+           return Money.toDouble(getDeltaCents(employeeType));
+       }
+   }
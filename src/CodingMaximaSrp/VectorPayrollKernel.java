@@ -0,0 +1,144 @@
+package CodingMaximaSrp;
+
+   import jdk.incubator.vector.IntVector;
+   import jdk.incubator.vector.LongVector;
+   import jdk.incubator.vector.VectorMask;
+   import jdk.incubator.vector.VectorOperators;
+   import jdk.incubator.vector.VectorShape;
+   import jdk.incubator.vector.VectorSpecies;
+
+   // The payroll formulas over whole vectors of rows, in exact integer arithmetic. Vector lanes wrap
+   // where Money throws, so any vector holding a pay input of 2^40 cents or more, or a negative one,
+   // goes through the scalar kernel instead and fails or succeeds exactly as calculateSalary would.
+   // Only loaded by PayrollKernel.select once the incubator module is known to be present.
+   final class VectorPayrollKernel implements PayrollKernel {
+       private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+       private static final VectorSpecies<Integer> INTS =
+           VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+       private static final int SAFE_BITS = 40;
+       private static final int SAFE_DAY_BITS = 20;
+       // Lane sums are moved into the exact total this often, long before 2^63 is in reach
+       private static final int FLUSH_VECTORS = 1 << 16;
+       // floorDiv(n, 24) works on n + BIAS, which keeps it non-negative for every n the bounds allow
+       private static final long BIAS_QUOTIENT = 1L << 42;
+       private static final long BIAS = 24 * BIAS_QUOTIENT;
+
+       @Override
+       public long fullTime(Columns in, int from, int to, Output out) {
+           long total = 0;
+           LongVector sums = LongVector.zero(LONGS);
+           int flushCountdown = FLUSH_VECTORS;
+           int row = from;
+           for (int upper = from + LONGS.loopBound(to - from); row < upper; row += LONGS.length()) {
+               LongVector basic = LongVector.fromArray(LONGS, in.basicPay(), row);
+               LongVector hra = LongVector.fromArray(LONGS, in.hra(), row);
+               LongVector bonus = LongVector.fromArray(LONGS, in.bonus(), row);
+               LongVector pf = LongVector.fromArray(LONGS, in.rate(), row);
+               if (outOfRange(basic.or(hra).or(bonus).or(pf), SAFE_BITS)) {
+                   total = Money.add(total, ScalarPayrollKernel.INSTANCE.fullTime(in, row, row + LONGS.length(), out));
+                   continue;
+               }
+               // FullTimeEmployee.salaryCents is Money.divide(12 * (basic + hra - pf) + bonus, 12),
+               // which is floorDiv(24 * (basic + hra - pf) + 2 * bonus + 12, 24)
+               LongVector numerator = basic.add(hra).sub(pf).mul(24).add(bonus.mul(2)).add(12);
+               LongVector salary = floorDiv24(numerator);
+               emit(salary, row, out);
+               sums = sums.add(salary);
+               if (--flushCountdown == 0) {
+                   total = Money.add(total, sums.reduceLanes(VectorOperators.ADD));
+                   sums = LongVector.zero(LONGS);
+                   flushCountdown = FLUSH_VECTORS;
+               }
+           }
+           total = Money.add(total, sums.reduceLanes(VectorOperators.ADD));
+           return Money.add(total, ScalarPayrollKernel.INSTANCE.fullTime(in, row, to, out));
+       }
+
+       @Override
+       public long contract(Columns in, int from, int to, Output out) {
+           long total = 0;
+           LongVector sums = LongVector.zero(LONGS);
+           int flushCountdown = FLUSH_VECTORS;
+           int row = from;
+           for (int upper = from + LONGS.loopBound(to - from); row < upper; row += LONGS.length()) {
+               LongVector basic = LongVector.fromArray(LONGS, in.basicPay(), row);
+               LongVector hra = LongVector.fromArray(LONGS, in.hra(), row);
+               if (outOfRange(basic.or(hra), SAFE_BITS)) {
+                   total = Money.add(total, ScalarPayrollKernel.INSTANCE.contract(in, row, row + LONGS.length(), out));
+                   continue;
+               }
+               LongVector salary = basic.add(hra);
+               emit(salary, row, out);
+               sums = sums.add(salary);
+               if (--flushCountdown == 0) {
+                   total = Money.add(total, sums.reduceLanes(VectorOperators.ADD));
+                   sums = LongVector.zero(LONGS);
+                   flushCountdown = FLUSH_VECTORS;
+               }
+           }
+           total = Money.add(total, sums.reduceLanes(VectorOperators.ADD));
+           return Money.add(total, ScalarPayrollKernel.INSTANCE.contract(in, row, to, out));
+       }
+
+       @Override
+       public long dailyWage(Columns in, int from, int to, Output out) {
+           long total = 0;
+           LongVector sums = LongVector.zero(LONGS);
+           int flushCountdown = FLUSH_VECTORS;
+           int row = from;
+           for (int upper = from + LONGS.loopBound(to - from); row < upper; row += LONGS.length()) {
+               LongVector dailyRate = LongVector.fromArray(LONGS, in.rate(), row);
+               LongVector bonus = LongVector.fromArray(LONGS, in.bonus(), row);
+               LongVector days = (LongVector) IntVector.fromArray(INTS, in.units(), row).convertShape(VectorOperators.I2L, LONGS, 0);
+               if (outOfRange(dailyRate.or(bonus), SAFE_BITS) || outOfRange(days, SAFE_DAY_BITS)) {
+                   total = Money.add(total, ScalarPayrollKernel.INSTANCE.dailyWage(in, row, row + LONGS.length(), out));
+                   continue;
+               }
+               LongVector salary = dailyRate.mul(days).add(bonus);
+               emit(salary, row, out);
+               sums = sums.add(salary);
+               if (--flushCountdown == 0) {
+                   total = Money.add(total, sums.reduceLanes(VectorOperators.ADD));
+                   sums = LongVector.zero(LONGS);
+                   flushCountdown = FLUSH_VECTORS;
+               }
+           }
+           total = Money.add(total, sums.reduceLanes(VectorOperators.ADD));
+           return Money.add(total, ScalarPayrollKernel.INSTANCE.dailyWage(in, row, to, out));
+       }
+
+       // True if any lane is negative or needs more than the given number of bits
+       private static boolean outOfRange(LongVector bits, int safeBits) {
+           return bits.lanewise(VectorOperators.LSHR, safeBits).compare(VectorOperators.NE, 0).anyTrue();
+       }
+
+       // Math.floorDiv(n, 24) for |n| < 2^46 with shifts and multiplies only, as long lanes have no
+       // divide instruction: x = (n + BIAS) / 8 is below 2^45, and splitting x = a * 2^22 + b gives
+       // x / 3 = a * 1398101 + (a + b) / 3, since 2^22 = 3 * 1398101 + 1. With a + b below 2^32,
+       // (a + b) / 3 is ((a + b) * 0xAAAAAAAB) >>> 33.
+       private static LongVector floorDiv24(LongVector n) {
+           LongVector x = n.add(BIAS).lanewise(VectorOperators.LSHR, 3);
+           LongVector high = x.lanewise(VectorOperators.LSHR, 22);
+           LongVector low = x.and((1L << 22) - 1);
+           LongVector thirdOfRest = high.add(low).mul(0xAAAAAAABL).lanewise(VectorOperators.LSHR, 33);
+           return high.mul(1398101).add(thirdOfRest).sub(BIAS_QUOTIENT);
+       }
+
+       private static void emit(LongVector salary, int row, Output out) {
+           if (out.salaries() != null) {
+               salary.intoArray(out.salaries(), row);
+           }
+           if (out.inRange() != null) {
+               VectorMask<Long> inRange = salary.compare(VectorOperators.GE, out.minCents())
+                   .and(salary.compare(VectorOperators.LE, out.maxCents()));
+               long bits = inRange.toLong();
+               if (bits != 0) {
+                   int shift = row & 63;
+                   out.inRange()[row >>> 6] |= bits << shift;
+                   if (shift + LONGS.length() > 64) {
+                       out.inRange()[(row >>> 6) + 1] |= bits >>> (64 - shift);
+                   }
+               }
+           }
+       }
+   }
@@ -0,0 +1,314 @@
+package CodingMaximaSrp.jmx;
+
+   import java.lang.management.ManagementFactory;
+   import java.util.ArrayList;
+   import java.util.List;
+   import java.util.concurrent.TimeUnit;
+   import java.util.concurrent.atomic.LongAdder;
+   import javax.management.JMException;
+   import javax.management.MBeanServer;
+   import javax.management.ObjectName;
+
+   import CodingMaximaSrp.LatencyHistogram;
+   import CodingMaximaSrp.Metrics;
+   import CodingMaximaSrp.MetricsRegistry;
+   import CodingMaximaSrp.RosterType;
+
+   // Keeps running totals in LongAdders and latency histograms per operation, and publishes them as
+   // MXBeans under the CodingMaximaSrp domain. It has a package of its own so that only this package,
+   // not the salary system, is exported to java.management:
+   //
+   //   CodingMaximaSrp:type=Loader,name=<roster type>      rows parsed and rejected, bytes, load time
+   //   CodingMaximaSrp:type=Operation,name=<operation>     call count and latency percentiles
+   //   CodingMaximaSrp:type=Salary                         calculateSalary calls and recomputations
+   //   CodingMaximaSrp:type=Export                         payroll exports and their throughput
+   public class JmxMetricsRegistry implements MetricsRegistry {
+       public static final String DOMAIN = "CodingMaximaSrp";
+
+       public interface LoaderMXBean {
+           long getLoads();
+           long getRowsParsed();
+           long getRowsRejected();
+           long getBytesRead();
+           long getLoadTimeMillis();
+           double getRowsPerSecond();
+           String getLastSource();
+       }
+
+       public interface OperationMXBean {
+           long getCount();
+           double getMeanMicros();
+           double getP50Micros();
+           double getP90Micros();
+           double getP99Micros();
+           double getMaxMicros();
+       }
+
+       public interface SalaryMXBean {
+           long getCalculations();
+           long getComputations();
+       }
+
+       public interface ExportMXBean {
+           long getExports();
+           long getRowsExported();
+           long getBytesExported();
+           long getExportTimeMillis();
+           double getRowsPerSecond();
+           double getMegabytesPerSecond();
+       }
+
+       private final LoaderStats[] loaders = new LoaderStats[RosterType.values().length];
+       private final OperationStats[] operations = new OperationStats[Operation.values().length];
+       private final SalaryStats salary = new SalaryStats();
+       private final ExportStats export = new ExportStats();
+       private final List<ObjectName> registered = new ArrayList<>();
+       private MBeanServer server;
+
+       public JmxMetricsRegistry() {
+           for (RosterType type : RosterType.values()) {
+               loaders[type.ordinal()] = new LoaderStats();
+           }
+           for (Operation operation : Operation.values()) {
+               operations[operation.ordinal()] = new OperationStats();
+           }
+       }
+
+       // Registers the MXBeans with the platform MBean server and installs this registry
+       public static JmxMetricsRegistry install() throws JMException {
+           JmxMetricsRegistry registry = new JmxMetricsRegistry();
+           registry.register(ManagementFactory.getPlatformMBeanServer());
+           Metrics.install(registry);
+           return registry;
+       }
+
+       public synchronized void register(MBeanServer mbeanServer) throws JMException {
+           if (server != null) {
+               throw new IllegalStateException("Metrics are already registered");
+           }
+           server = mbeanServer;
+           try {
+               for (RosterType type : RosterType.values()) {
+                   register(new ObjectName(DOMAIN + ":type=Loader,name=" + type.name()), loaders[type.ordinal()]);
+               }
+               for (Operation operation : Operation.values()) {
+                   register(new ObjectName(DOMAIN + ":type=Operation,name=" + operation.name()), operations[operation.ordinal()]);
+               }
+               register(new ObjectName(DOMAIN + ":type=Salary"), salary);
+               register(new ObjectName(DOMAIN + ":type=Export"), export);
+           } catch (JMException | RuntimeException e) {
+               unregister();
+               throw e;
+           }
+       }
+
+       public synchronized void unregister() throws JMException {
+           if (server == null) {
+               return;
+           }
+           JMException failure = null;
+           for (ObjectName name : registered) {
+               try {
+                   server.unregisterMBean(name);
+               } catch (JMException e) {
+                   failure = e;
+               }
+           }
+           registered.clear();
+           server = null;
+           if (failure != null) {
+               throw failure;
+           }
+       }
+
+       @Override
+       public void recordLoad(RosterType type, String source, long rowsParsed, long rowsRejected, long bytesRead, long elapsedNanos) {
+           LoaderStats stats = loaders[type.ordinal()];
+           stats.loads.increment();
+           stats.rowsParsed.add(rowsParsed);
+           stats.rowsRejected.add(rowsRejected);
+           stats.bytesRead.add(bytesRead);
+           stats.nanos.add(elapsedNanos);
+           stats.lastSource = source;
+       }
+
+       @Override
+       public void recordOperation(Operation operation, long elapsedNanos) {
+           operations[operation.ordinal()].latency.record(elapsedNanos);
+       }
+
+       @Override
+       public void recordSalaryCalculation(boolean cached) {
+           salary.calculations.increment();
+           if (!cached) {
+               salary.computations.increment();
+           }
+       }
+
+       @Override
+       public void recordExport(long rows, long bytes, long elapsedNanos) {
+           export.exports.increment();
+           export.rows.add(rows);
+           export.bytes.add(bytes);
+           export.nanos.add(elapsedNanos);
+       }
+
+       public LatencyHistogram getLatency(Operation operation) {
+           return operations[operation.ordinal()].latency;
+       }
+
+       public LoaderMXBean getLoaderStats(RosterType type) {
+           return loaders[type.ordinal()];
+       }
+
+       public SalaryMXBean getSalaryStats() {
+           return salary;
+       }
+
+       public ExportMXBean getExportStats() {
+           return export;
+       }
+
+       private void register(ObjectName name, Object mxbean) throws JMException {
+           server.registerMBean(mxbean, name);
+           registered.add(name);
+       }
+
+       private static double perSecond(long amount, long nanos) {
+           return nanos == 0 ? 0.0 : amount * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+       }
+
+       private static double micros(double nanos) {
+           return nanos / 1_000.0;
+       }
+
+       private static class LoaderStats implements LoaderMXBean {
+           final LongAdder loads = new LongAdder();
+           final LongAdder rowsParsed = new LongAdder();
+           final LongAdder rowsRejected = new LongAdder();
+           final LongAdder bytesRead = new LongAdder();
+           final LongAdder nanos = new LongAdder();
+           volatile String lastSource;
+
+           @Override
+           public long getLoads() {
+               return loads.sum();
+           }
+
+           @Override
+           public long getRowsParsed() {
+               return rowsParsed.sum();
+           }
+
+           @Override
+           public long getRowsRejected() {
+               return rowsRejected.sum();
+           }
+
+           @Override
+           public long getBytesRead() {
+               return bytesRead.sum();
+           }
+
+           @Override
+           public long getLoadTimeMillis() {
+               return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+           }
+
+           @Override
+           public double getRowsPerSecond() {
+               return perSecond(rowsParsed.sum() + rowsRejected.sum(), nanos.sum());
+           }
+
+           @Override
+           public String getLastSource() {
+               return lastSource;
+           }
+       }
+
+       private static class OperationStats implements OperationMXBean {
+           final LatencyHistogram latency = new LatencyHistogram();
+
+           @Override
+           public long getCount() {
+               return latency.getCount();
+           }
+
+           @Override
+           public double getMeanMicros() {
+               return micros(latency.getMeanNanos());
+           }
+
+           @Override
+           public double getP50Micros() {
+               return micros(latency.getPercentileNanos(0.50));
+           }
+
+           @Override
+           public double getP90Micros() {
+               return micros(latency.getPercentileNanos(0.90));
+           }
+
+           @Override
+           public double getP99Micros() {
+               return micros(latency.getPercentileNanos(0.99));
+           }
+
+           @Override
+           public double getMaxMicros() {
+               return micros(latency.getMaxNanos());
+           }
+       }
+
+       private static class SalaryStats implements SalaryMXBean {
+           final LongAdder calculations = new LongAdder();
+           final LongAdder computations = new LongAdder();
+
+           @Override
+           public long getCalculations() {
+               return calculations.sum();
+           }
+
+           @Override
+           public long getComputations() {
+               return computations.sum();
+           }
+       }
+
+       private static class ExportStats implements ExportMXBean {
+           final LongAdder exports = new LongAdder();
+           final LongAdder rows = new LongAdder();
+           final LongAdder bytes = new LongAdder();
+           final LongAdder nanos = new LongAdder();
+
+           @Override
+           public long getExports() {
+               return exports.sum();
+           }
+
+           @Override
+           public long getRowsExported() {
+               return rows.sum();
+           }
+
+           @Override
+           public long getBytesExported() {
+               return bytes.sum();
+           }
+
+           @Override
+           public long getExportTimeMillis() {
+               return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+           }
+
+           @Override
+           public double getRowsPerSecond() {
+               return perSecond(rows.sum(), nanos.sum());
+           }
+
+           @Override
+           public double getMegabytesPerSecond() {
+               return perSecond(bytes.sum(), nanos.sum()) / (1 << 20);
+           }
+       }
+   }
@@ -6,4 +6,12 @@
  */
 module CodingMaximaSrpOcpExample {
 	requires com.opencsv;
+	requires java.management;
+	requires jdk.httpserver;
+	// Optional: the vector payroll kernel is used only when the JVM is started with --add-modules jdk.incubator.vector
+	requires static jdk.incubator.vector;
+
+	// Lets the platform MBean server read the metrics MXBeans. Not qualified to java.management, as
+	// JMX reads attributes through a class of its own outside any named module.
+	exports CodingMaximaSrp.jmx;
 }
\ No newline at end of file